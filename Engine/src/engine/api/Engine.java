@@ -4,6 +4,8 @@ import dto.*;
 
 import dto.enums.PermissionType;
 import dto.enums.Status;
+import engine.cache.api.ResultCacheCounters;
+import engine.filter.FilterCondition;
 import engine.versions.api.VersionManager;
 import sheet.api.Sheet;
 import sheet.coordinate.impl.CoordinateFactory;
@@ -30,6 +32,7 @@ public interface Engine {
 
                 // Filter
                 SheetDto filter(String userName, String sheetName, Boundaries boundaries, String column, List<String> values, int version);
+                FilterDesignDto filter(String userName, String sheetName, Boundaries boundaries, List<FilterCondition> conditions, int version);
                 Map<CoordinateDto, CoordinateDto> filteredMap(String userName, String sheetName, Boundaries boundariesToFilter, String filteringByColumn, List<String> filteringByValues, int version);
                 List<String> getColumnUniqueValuesInRange(String userName, String sheetName, int column, int startRow, int endRow, int version);
 
@@ -38,6 +41,9 @@ public interface Engine {
                 List<List<CoordinateDto>> sortCellsInRange(String userName, String sheetName, Boundaries boundaries, List<String> column, int version);
                 List<String> getNumericColumnsInRange(String userName, String sheetName, Boundaries boundaries, int version);
 
+                // Cached Results
+                ResultCacheCounters getResultCacheCounters();
+
         // Permissions:
 
                 // Get Methods
@@ -52,6 +58,7 @@ public interface Engine {
 
                 // Post Methods
                 SheetDto updateDynamicSheetCell(String userName, String sheetName, int sheetVersion, String cellName, String cellValue);
+                SweepResultDto sweepDynamicSheet(String userName, String sheetName, int sheetVersion, SweepDto sweep);
 
 // Cells:
 
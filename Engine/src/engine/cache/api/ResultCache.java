@@ -0,0 +1,12 @@
+package engine.cache.api;
+
+import sheet.api.SheetGetters;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface ResultCache {
+    // Returns the result of the query on this version, computing and keeping it when it is not known yet.
+    <T> T get(String sheetName, SheetGetters version, List<Object> query, Supplier<T> compute);
+    ResultCacheCounters getCounters();
+}
@@ -0,0 +1,7 @@
+package engine.cache.api;
+
+public interface ResultCacheCounters {
+    long getHits();
+    long getMisses();
+    long getEvictions();
+}
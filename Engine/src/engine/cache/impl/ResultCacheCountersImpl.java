@@ -0,0 +1,58 @@
+package engine.cache.impl;
+
+import engine.cache.api.ResultCacheCounters;
+
+public class ResultCacheCountersImpl implements ResultCacheCounters {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private ResultCacheCountersImpl() {}
+
+    private ResultCacheCountersImpl(ResultCacheCountersImpl other) {
+        this.hits = other.hits;
+        this.misses = other.misses;
+        this.evictions = other.evictions;
+    }
+
+    public static ResultCacheCountersImpl create() {
+        return new ResultCacheCountersImpl();
+    }
+
+    @Override
+    public long getHits() {
+        return this.hits;
+    }
+
+    @Override
+    public long getMisses() {
+        return this.misses;
+    }
+
+    @Override
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public void hit() {
+        this.hits++;
+    }
+
+    public void miss() {
+        this.misses++;
+    }
+
+    public void evicted() {
+        this.evictions++;
+    }
+
+    public ResultCacheCountersImpl copy() {
+        return new ResultCacheCountersImpl(this);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + this.hits + ", misses=" + this.misses + ", evictions=" + this.evictions;
+    }
+}
@@ -0,0 +1,101 @@
+package engine.cache.impl;
+
+import engine.cache.api.ResultCache;
+import engine.cache.api.ResultCacheCounters;
+import sheet.api.SheetGetters;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class ResultCacheImpl implements ResultCache, Serializable {
+
+    private final static int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    // Results are only worth keeping while the engine runs, a deserialized cache starts empty.
+    private final transient Entries entries;
+    private final transient ResultCacheCountersImpl counters;
+
+    private ResultCacheImpl(int capacity) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be a positive integer");
+        }
+
+        this.capacity = capacity;
+        this.entries = new Entries(capacity);
+        this.counters = ResultCacheCountersImpl.create();
+    }
+
+    public static ResultCacheImpl create() {
+        return new ResultCacheImpl(DEFAULT_CAPACITY);
+    }
+
+    public static ResultCacheImpl create(int capacity) {
+        return new ResultCacheImpl(capacity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String sheetName, SheetGetters version, List<Object> query, Supplier<T> compute) {
+        Key key = new Key(sheetName, version.getVersion(), query);
+
+        synchronized (this) {
+            Entry entry = this.entries.get(key);
+
+            // The last version can be amended in place, a result only counts for the sheet object it was computed on.
+            if (entry != null && entry.source.get() == version) {
+                this.counters.hit();
+                return (T) entry.result;
+            }
+
+            this.counters.miss();
+        }
+
+        // Computed outside the lock, two requests for the same result may both compute it.
+        T result = compute.get();
+
+        synchronized (this) {
+            this.entries.put(key, new Entry(new WeakReference<>(version), result));
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized ResultCacheCounters getCounters() {
+        return this.counters.copy();
+    }
+
+    private Object readResolve() {
+        return new ResultCacheImpl(this.capacity);
+    }
+
+    private record Key(String sheetName, int version, List<Object> query) { }
+
+    private record Entry(WeakReference<SheetGetters> source, Object result) { }
+
+    private class Entries extends LinkedHashMap<Key, Entry> {
+
+        private final int capacity;
+
+        private Entries(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > this.capacity) {
+                counters.evicted();
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
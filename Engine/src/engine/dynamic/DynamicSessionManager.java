@@ -0,0 +1,114 @@
+package engine.dynamic;
+
+import sheet.api.Sheet;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// One what-if copy per user. A copy shares every cell with the version it was made from and owns only the
+// cells the user changed and the cells recalculated from them, so it costs little more than those cells.
+public class DynamicSessionManager {
+
+    private final static long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000;
+    private final static int DEFAULT_MAX_SESSIONS = 64;
+
+    private final long timeToLiveMillis;
+    private final int maxSessions;
+    // In access order, so the idle sessions are always first.
+    private final Map<String, DynamicSession> sessions;
+
+    private DynamicSessionManager(long timeToLiveMillis, int maxSessions) {
+
+        if (timeToLiveMillis < 1) {
+            throw new IllegalArgumentException("Session time to live must be a positive number of milliseconds");
+        }
+
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Maximum number of sessions must be a positive integer");
+        }
+
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxSessions = maxSessions;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DynamicSession> eldest) {
+                return size() > DynamicSessionManager.this.maxSessions;
+            }
+        };
+    }
+
+    public static DynamicSessionManager create() {
+        return new DynamicSessionManager(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MAX_SESSIONS);
+    }
+
+    public static DynamicSessionManager create(long timeToLiveMillis, int maxSessions) {
+        return new DynamicSessionManager(timeToLiveMillis, maxSessions);
+    }
+
+    // The user's copy of this version, a new one when the user moved to another sheet or version.
+    public Sheet getSession(String userName, String sheetName, int version, Supplier<? extends Sheet> base) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            evictIdle(now);
+
+            DynamicSession session = this.sessions.get(userName);
+            if (session != null && session.isOf(sheetName, version)) {
+                session.lastAccess = now;
+                return session.sheet;
+            }
+        }
+
+        // Reading an old version may replay it, that is done without holding the other users back.
+        DynamicSession created = new DynamicSession(sheetName, version, base.get().copy(), now);
+
+        synchronized (this) {
+            DynamicSession session = this.sessions.get(userName);
+
+            // Another request of this user may have made the same copy meanwhile.
+            if (session != null && session.isOf(sheetName, version)) {
+                session.lastAccess = now;
+                return session.sheet;
+            }
+
+            this.sessions.put(userName, created);
+            return created.sheet;
+        }
+    }
+
+    public synchronized void endSession(String userName) {
+        this.sessions.remove(userName);
+    }
+
+    public synchronized int size() {
+        return this.sessions.size();
+    }
+
+    private void evictIdle(long now) {
+        Iterator<DynamicSession> iterator = this.sessions.values().iterator();
+
+        while (iterator.hasNext() && now - iterator.next().lastAccess > this.timeToLiveMillis) {
+            iterator.remove();
+        }
+    }
+
+    private static class DynamicSession {
+        private final String sheetName;
+        private final int version;
+        private final Sheet sheet;
+        private long lastAccess;
+
+        private DynamicSession(String sheetName, int version, Sheet sheet, long lastAccess) {
+            this.sheetName = sheetName;
+            this.version = version;
+            this.sheet = sheet;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isOf(String sheetName, int version) {
+            return this.sheetName.equals(sheetName) && this.version == version;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package engine.dynamic;
+
+import sheet.api.Sheet;
+import sheet.cell.api.Cell;
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Evaluates a sheet for every value of one or two input cells, each point on its own copy of the sheet.
+// The copies share the cells they don't change, so the points are evaluated in parallel without interfering.
+public class ParameterSweep {
+
+    private final static int MAX_INPUTS = 2;
+    private final static int MAX_POINTS = 10_000;
+
+    private final Sheet base;
+    private final List<Coordinate> inputs;
+    private final List<double[]> inputValues;
+    private final Set<Coordinate> outputs;
+
+    private ParameterSweep(Sheet base) {
+
+        if (base == null) {
+            throw new IllegalArgumentException("Sheet cannot be null");
+        }
+
+        this.base = base;
+        this.inputs = new ArrayList<>();
+        this.inputValues = new ArrayList<>();
+        this.outputs = new LinkedHashSet<>();
+    }
+
+    // The sheet must not change while the sweep runs, callers pass a copy of their own.
+    public static ParameterSweep create(Sheet base) {
+        return new ParameterSweep(base);
+    }
+
+    public ParameterSweep vary(Coordinate cell, double min, double max, double step) {
+
+        if (this.inputs.size() == MAX_INPUTS) {
+            throw new IllegalArgumentException("A sweep varies at most " + MAX_INPUTS + " cells");
+        }
+
+        if (this.inputs.contains(cell)) {
+            throw new IllegalArgumentException("Cell " + cell + " is already varied");
+        }
+
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("Step must be a positive number");
+        }
+
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum " + min + " is greater than maximum " + max);
+        }
+
+        this.base.isCoordinateInBoundaries(cell);
+
+        // Decimal arithmetic, so that 0.1 steps land on 0.3 and not on 0.30000000000000004.
+        BigDecimal first = BigDecimal.valueOf(min);
+        BigDecimal increment = BigDecimal.valueOf(step);
+        BigDecimal steps = BigDecimal.valueOf(max).subtract(first).divideToIntegralValue(increment);
+
+        if (steps.compareTo(BigDecimal.valueOf(MAX_POINTS)) >= 0) {
+            throw new IllegalArgumentException("A sweep has at most " + MAX_POINTS + " points");
+        }
+
+        double[] values = new double[steps.intValue() + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = first.add(increment.multiply(BigDecimal.valueOf(i))).doubleValue();
+        }
+
+        this.inputs.add(cell);
+        this.inputValues.add(values);
+
+        return this;
+    }
+
+    public ParameterSweep read(Coordinate cell) {
+        this.base.isCoordinateInBoundaries(cell);
+        this.outputs.add(cell);
+
+        return this;
+    }
+
+    public double[] getValues(int input) {
+        return this.inputValues.get(input).clone();
+    }
+
+    // Each output's displayed values, point by point, the second input changing fastest.
+    // Without outputs to read, every cell that changed at some point is read.
+    public Map<Coordinate, List<String>> run() {
+
+        if (this.inputs.isEmpty()) {
+            throw new IllegalArgumentException("A sweep needs a cell to vary");
+        }
+
+        int secondCount = this.inputs.size() > 1 ? this.inputValues.get(1).length : 1;
+        int points = this.inputValues.get(0).length * secondCount;
+
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("A sweep has at most " + MAX_POINTS + " points");
+        }
+
+        List<Map<Coordinate, String>> results = new ArrayList<>(Collections.nCopies(points, null));
+
+        IntStream.range(0, points).parallel().forEach(point -> {
+            Map<Coordinate, String> originalValues = new HashMap<>();
+            originalValues.put(this.inputs.get(0), toOriginalValue(this.inputValues.get(0)[point / secondCount]));
+
+            if (this.inputs.size() > 1) {
+                originalValues.put(this.inputs.get(1), toOriginalValue(this.inputValues.get(1)[point % secondCount]));
+            }
+
+            Sheet whatIf = this.base.copy();
+            whatIf.setCells(originalValues);
+
+            results.set(point, this.outputs.isEmpty() ? changedCells(whatIf) : readOutputs(whatIf));
+        });
+
+        Set<Coordinate> read = new LinkedHashSet<>(this.outputs);
+        results.forEach(result -> read.addAll(result.keySet()));
+
+        Map<Coordinate, List<String>> series = new LinkedHashMap<>();
+        read.forEach(coordinate -> {
+            String baseValue = displayed(this.base.getCell(coordinate));
+            List<String> values = new ArrayList<>(points);
+            results.forEach(result -> values.add(result.getOrDefault(coordinate, baseValue)));
+            series.put(coordinate, values);
+        });
+
+        return series;
+    }
+
+    private Map<Coordinate, String> readOutputs(Sheet whatIf) {
+        Map<Coordinate, String> values = new HashMap<>();
+        this.outputs.forEach(coordinate -> values.put(coordinate, displayed(whatIf.getCell(coordinate))));
+
+        return values;
+    }
+
+    private Map<Coordinate, String> changedCells(Sheet whatIf) {
+        Map<Coordinate, String> values = new HashMap<>();
+
+        // A copy only replaces the cells it changed, the others are still the very same objects.
+        whatIf.getActiveCells().forEach((coordinate, cell) -> {
+            Cell baseCell = this.base.getCell(coordinate);
+            if (cell != baseCell && !displayed(cell).equals(displayed(baseCell))) {
+                values.put(coordinate, displayed(cell));
+            }
+        });
+
+        return values;
+    }
+
+    private static String displayed(CellGetters cell) {
+        return cell == null ? "" : cell.getEffectiveValue().toString();
+    }
+
+    // Whole numbers are written without a fraction, those out of a long's range keep the double's own form.
+    private static String toOriginalValue(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 0x1p63 ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,75 @@
+package engine.filter;
+
+import expression.api.Data;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+// A test on one column, a row passes a filter when it passes every condition of it.
+public class FilterCondition {
+
+    private final String column;
+    // Displayed values a cell may have, null for a numeric range condition.
+    private final Set<String> values;
+    private final double min;
+    private final double max;
+
+    private FilterCondition(String column, Set<String> values, double min, double max) {
+
+        if (column == null) {
+            throw new IllegalArgumentException("Column cannot be null");
+        }
+
+        this.column = column;
+        this.values = values;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static FilterCondition valueIn(String column, Collection<String> values) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+
+        return new FilterCondition(column, new HashSet<>(values), Double.NaN, Double.NaN);
+    }
+
+    public static FilterCondition numberBetween(String column, double min, double max) {
+
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum " + min + " is greater than maximum " + max);
+        }
+
+        return new FilterCondition(column, null, min, max);
+    }
+
+    public String getColumn() {
+        return this.column;
+    }
+
+    boolean test(Data value) {
+
+        if (this.values != null) {
+            return this.values.contains(value.toString());
+        }
+
+        return value.isDisplayNumeric() && value.getDisplayNumber() >= this.min && value.getDisplayNumber() <= this.max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FilterCondition that = (FilterCondition) o;
+        return Double.compare(min, that.min) == 0 && Double.compare(max, that.max) == 0 &&
+                column.equals(that.column) && Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(column, values, min, max);
+    }
+}
@@ -0,0 +1,47 @@
+package engine.filter;
+
+import expression.api.Data;
+
+import java.util.BitSet;
+
+// Applies column conditions to the rows of a range and returns the rows that pass all of them as a bitmap.
+public class RowFilter {
+
+    private final int rowCount;
+    private final BitSet passingRows;
+
+    private RowFilter(int rowCount) {
+
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Number of rows cannot be negative");
+        }
+
+        this.rowCount = rowCount;
+        this.passingRows = new BitSet(rowCount);
+        this.passingRows.set(0, rowCount);
+    }
+
+    public static RowFilter create(int rowCount) {
+        return new RowFilter(rowCount);
+    }
+
+    // column[i] is the value of row i in the condition's column, each condition only visits rows that are still in.
+    public RowFilter where(Data[] column, FilterCondition condition) {
+
+        if (column.length != this.rowCount) {
+            throw new IllegalArgumentException("Column has " + column.length + " values, expected " + this.rowCount);
+        }
+
+        for (int row = this.passingRows.nextSetBit(0); row >= 0; row = this.passingRows.nextSetBit(row + 1)) {
+            if (!condition.test(column[row])) {
+                this.passingRows.clear(row);
+            }
+        }
+
+        return this;
+    }
+
+    public BitSet filter() {
+        return (BitSet) this.passingRows.clone();
+    }
+}
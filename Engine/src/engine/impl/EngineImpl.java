@@ -4,11 +4,21 @@ import dto.*;
 import dto.enums.PermissionType;
 import dto.enums.Status;
 import engine.api.Engine;
+import engine.dynamic.DynamicSessionManager;
+import engine.dynamic.ParameterSweep;
+import engine.cache.api.ResultCache;
+import engine.cache.api.ResultCacheCounters;
+import engine.cache.impl.ResultCacheImpl;
+import engine.filter.FilterCondition;
+import engine.filter.RowFilter;
 import engine.jaxb.parser.STLSheetToSheet;
 import engine.permissions.impl.PermissionManagerImpl;
 import engine.permissions.api.PermissionManager;
+import engine.sort.RowSorter;
 import engine.users.UserManager;
 import engine.versions.api.VersionManager;
+import engine.versions.delta.CellDelta;
+import engine.versions.delta.RangeDelta;
 import engine.versions.impl.VersionManagerImpl;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
@@ -17,21 +27,22 @@ import sheet.api.Sheet;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import engine.jaxb.generated.STLSheet;
+import expression.api.Data;
+import expression.impl.DataImpl;
 import sheet.api.SheetGetters;
 import sheet.cell.api.Cell;
 import sheet.cell.api.CellGetters;
 import sheet.coordinate.api.Coordinate;
 import sheet.coordinate.impl.CoordinateFactory;
-import sheet.impl.SheetImpl;
-import sheet.layout.api.Layout;
 import sheet.layout.api.LayoutGetters;
-import sheet.layout.impl.LayoutImpl;
+import sheet.projection.ProjectedSheet;
 import sheet.range.api.RangeGetters;
 import sheet.range.boundaries.api.Boundaries;
 import sheet.range.boundaries.impl.BoundariesFactory;
-import sheet.range.impl.RangeImpl;
+import sheet.recalculation.api.RecalculationMode;
 
 public class EngineImpl implements Engine, Serializable {
 
@@ -40,19 +51,36 @@ public class EngineImpl implements Engine, Serializable {
     private final static int MAX_COLUMNS = 20;
 
     private final Map<String, VersionManager> sheetNameToVersionManagerMap;
+    // Writes to a sheet wait for each other on its own lock, sheets are edited independently.
+    private final Map<String, Object> sheetNameToWriteLockMap;
     private final Map<String, PermissionManager> userToPermissionManagerMap;
     private final UserManager userManager;
-    private final Map<String, Sheet> userToDynamicSheetMap;
+    private final DynamicSessionManager dynamicSessionManager;
+    private final RecalculationMode recalculationMode;
+    // Versions don't change once published, so sort, filter and column queries on them are answered once.
+    private final ResultCache resultCache;
 
-    private EngineImpl() {
-        this.sheetNameToVersionManagerMap = new HashMap<>();
-        this.userToPermissionManagerMap = new HashMap<>();
+    private EngineImpl(RecalculationMode recalculationMode) {
+
+        if (recalculationMode == null) {
+            throw new IllegalArgumentException("Recalculation mode cannot be null");
+        }
+
+        this.sheetNameToVersionManagerMap = new ConcurrentHashMap<>();
+        this.sheetNameToWriteLockMap = new ConcurrentHashMap<>();
+        this.userToPermissionManagerMap = new ConcurrentHashMap<>();
         this.userManager = new UserManager();
-        this.userToDynamicSheetMap = new HashMap<>();
+        this.dynamicSessionManager = DynamicSessionManager.create();
+        this.recalculationMode = recalculationMode;
+        this.resultCache = ResultCacheImpl.create();
     }
 
     public static EngineImpl create() {
-        return new EngineImpl();
+        return new EngineImpl(RecalculationMode.SEQUENTIAL);
+    }
+
+    public static EngineImpl create(RecalculationMode recalculationMode) {
+        return new EngineImpl(recalculationMode);
     }
 
     @Override
@@ -85,24 +113,24 @@ public class EngineImpl implements Engine, Serializable {
             Sheet sheet = STLSheetToSheet.generate(stlSheet);
 
             sheet.getActiveCells().forEach((coordinate, cell) -> cell.setUpdateBy(userName));
+            sheet.setRecalculationMode(this.recalculationMode);
 
-            synchronized (this) {
-
-                if (this.sheetNameToVersionManagerMap.containsKey(sheet.getName())) {
-                    throw new RuntimeException("Sheet " + sheet.getName() + " already exists");
-                }
-
-                if (!isValidLayout(sheet.getLayout())) {
-                    throw new IndexOutOfBoundsException("Layout is invalid !" + "\n" +
-                            "valid scale: rows <= 50 , columns <= 20");
-                }
+            if (!isValidLayout(sheet.getLayout())) {
+                throw new IndexOutOfBoundsException("Layout is invalid !" + "\n" +
+                        "valid scale: rows <= 50 , columns <= 20");
+            }
 
-                VersionManager versionManager = this.sheetNameToVersionManagerMap.computeIfAbsent(sheet.getName(), k -> VersionManagerImpl.create());
-                versionManager.init(sheet);
+            VersionManager versionManager = VersionManagerImpl.create();
+            versionManager.init(sheet);
 
-                this.userToPermissionManagerMap.computeIfAbsent(sheet.getName(), k -> PermissionManagerImpl.create(userName));
+            // The name is claimed only once nothing else can fail, and the version manager is added last so a sheet is never seen half made.
+            if (this.userToPermissionManagerMap.putIfAbsent(sheet.getName(), PermissionManagerImpl.create(userName)) != null) {
+                throw new RuntimeException("Sheet " + sheet.getName() + " already exists");
             }
 
+            this.sheetNameToWriteLockMap.put(sheet.getName(), new Object());
+            this.sheetNameToVersionManagerMap.put(sheet.getName(), versionManager);
+
             return sheet.getName();
 
         } catch (JAXBException e) {
@@ -114,40 +142,26 @@ public class EngineImpl implements Engine, Serializable {
     public void updateCell(String userName, String sheetName, int sheetVersion, String cellName, String cellValue) {
 
         VersionManager versionManager = getVersionManager(sheetName);
+        Coordinate coordinate = CoordinateFactory.toCoordinate(cellName.toUpperCase());
 
-        canWrite(userName, sheetName, sheetVersion);
-
-        versionManager.makeNewVersion();
+        synchronized (getWriteLock(sheetName)) {
+            canWrite(userName, sheetName, sheetVersion);
 
-        try {
-            Sheet lastVersion = versionManager.getLastVersion();
-            int version = lastVersion.getVersion();
-
-            lastVersion.setCell(CoordinateFactory.toCoordinate(cellName.toUpperCase()), cellValue);
-
-            lastVersion.getActiveCells().values().stream()
-                    .filter(cell -> cell.getVersion() == version)
-                    .forEach(cell -> cell.setUpdateBy(userName));
-
-        } catch (Exception e) {
-            versionManager.deleteLastVersion();
-            throw e;
+            versionManager.applyDelta(CellDelta.create(versionManager.getLastVersion(), coordinate, cellValue, userName));
         }
     }
 
     @Override
     public SheetDto updateDynamicSheetCell(String userName, String sheetName, int sheetVersion, String cellName, String cellValue) {
-        synchronized (this) {
-            Sheet sheet;
+        VersionManager versionManager = getVersionManager(sheetName);
 
-            if (!this.userToDynamicSheetMap.containsKey(userName)) {
-                this.userToDynamicSheetMap.put(userName, getVersionManager(sheetName).getVersion(sheetVersion).copy());
-            } else if (!this.userToDynamicSheetMap.get(userName).getName().equals(sheetName) || this.userToDynamicSheetMap.get(userName).getVersion() != sheetVersion) {
-                this.userToDynamicSheetMap.put(userName, getVersionManager(sheetName).getVersion(sheetVersion).copy());
-            }
+        canRead(userName, sheetName);
 
-            sheet = this.userToDynamicSheetMap.get(userName);
+        // The copy only owns the cells the user changed, the rest are read from the version itself.
+        Sheet sheet = this.dynamicSessionManager.getSession(userName, sheetName, sheetVersion, () -> versionManager.getVersion(sheetVersion));
 
+        // Each sheet evaluates against itself, so only requests on the same dynamic copy need to wait for each other.
+        synchronized (sheet) {
             sheet.setCell(CoordinateFactory.toCoordinate(cellName.toUpperCase()), cellValue);
             Cell cell = sheet.getActiveCells().get(CoordinateFactory.toCoordinate(cellName.toUpperCase()));
             cell.setUpdateBy(userName);
@@ -157,166 +171,81 @@ public class EngineImpl implements Engine, Serializable {
     }
 
     @Override
-    public SheetDto filter(String userName, String sheetName, Boundaries boundaries, String column, List<String> values, int version) {
+    public SweepResultDto sweepDynamicSheet(String userName, String sheetName, int sheetVersion, SweepDto sweepDto) {
         VersionManager versionManager = getVersionManager(sheetName);
 
         canRead(userName, sheetName);
 
-        Coordinate to = boundaries.getTo();
-        Coordinate from = boundaries.getFrom();
-
-        Sheet sheetToFilter = versionManager.getVersion(version);
-
-        Sheet newSheet = SheetImpl.create(copyLayout(sheetToFilter.getLayout())); //here need to bring the version we now look at.
-
-        int columnInt = CoordinateFactory.parseColumnToInt(column) - 1;
+        // The sweep starts from the user's what-if values and leaves them as they are.
+        Sheet session = this.dynamicSessionManager.getSession(userName, sheetName, sheetVersion, () -> versionManager.getVersion(sheetVersion));
+        Sheet base;
 
-        Map<Integer, Integer> oldRowToNewRow = new HashMap<>();
+        synchronized (session) {
+            base = session.copy();
+        }
 
-        int liftUpCellsCounter = 0;
-        int liftDownCellsCounter = 0;
+        ParameterSweep sweep = ParameterSweep.create(base);
+        SweepAxisDto input = sweepDto.input();
+        SweepAxisDto secondInput = sweepDto.secondInput();
 
-        for (int i = from.getRow(); i <= to.getRow(); i++) {
-            Cell cell = sheetToFilter.getCell(CoordinateFactory.createCoordinate(i, columnInt));
-            String effectiveValueStr;
-            if (cell == null) {
-                effectiveValueStr = "";
-            } else {
-                effectiveValueStr = cell.getEffectiveValue().toString();
-            }
+        sweep.vary(CoordinateFactory.toCoordinate(input.cell().toUpperCase()), input.min(), input.max(), input.step());
+        if (secondInput != null) {
+            sweep.vary(CoordinateFactory.toCoordinate(secondInput.cell().toUpperCase()), secondInput.min(), secondInput.max(), secondInput.step());
+        }
 
-            if (values.contains(effectiveValueStr)) {
-                oldRowToNewRow.put(i, from.getRow() + liftDownCellsCounter);
-                liftDownCellsCounter++;
-            } else {
-                liftUpCellsCounter++;
-            }
+        if (sweepDto.outputCells() != null) {
+            sweepDto.outputCells().forEach(cellName -> sweep.read(CoordinateFactory.toCoordinate(cellName.toUpperCase())));
         }
 
+        Map<String, List<String>> outputs = new LinkedHashMap<>();
+        sweep.run().forEach((coordinate, values) -> outputs.put(coordinate.toString(), values));
 
-        // Itay's filter version for exercise demands.
-        sheetToFilter
-                .getActiveCells()
-                .keySet()
-                .forEach(oldCoordinate -> {
-                    if(oldCoordinate.getRow() < from.getRow() || oldCoordinate.getRow() > to.getRow() ||
-                            oldCoordinate.getCol() < from.getCol() || oldCoordinate.getCol() > to.getCol()){
-                        newSheet.setCell(oldCoordinate, sheetToFilter.getCell(oldCoordinate).getEffectiveValue().toString());
-                        newSheet.getActiveCells().get(oldCoordinate).setUpdateBy(sheetToFilter.getCell(oldCoordinate).getUpdaterUserName());
-                    }
-                    else{
-                        if(oldRowToNewRow.containsKey(oldCoordinate.getRow())){
-                            Coordinate newCoordinate =
-                                    CoordinateFactory.createCoordinate(
-                                            oldRowToNewRow.get(oldCoordinate.getRow()),
-                                            oldCoordinate.getCol());
-                            newSheet.setCell(newCoordinate, sheetToFilter.getCell(oldCoordinate).getEffectiveValue().toString());
-                            newSheet.getActiveCells().get(newCoordinate).setUpdateBy(sheetToFilter.getCell(oldCoordinate).getUpdaterUserName());
-                        }
-                    }
-                });
-
-        // Yaniv's version works like Gsheet.
-//        this.sheet
-//                .getActiveCells()
-//                .keySet()
-//                .stream()
-//                .filter(coordinate -> coordinate.getRow() < from.getRow() || coordinate.getRow() > to.getRow())
-//                .forEach(oldCoordinate -> newSheet.setCell(oldCoordinate, sheetToFilter.getCell(oldCoordinate).getEffectiveValue().toString()));
-//
-//        this.sheet
-//                .getActiveCells()
-//                .keySet()
-//                .stream()
-//                .filter(coordinate -> coordinate.getRow() >= from.getRow() && coordinate.getRow() <= to.getRow())
-//                .forEach(oldCoordinate -> {
-//                    if (oldRowToNewRow.containsKey(oldCoordinate.getRow())) {
-//                        Coordinate newCoordinate =
-//                                CoordinateFactory.createCoordinate(
-//                                        oldRowToNewRow.get(oldCoordinate.getRow()),
-//                                        oldCoordinate.getCol());
-//                        newSheet.setCell(newCoordinate, sheetToFilter.getCell(oldCoordinate).getEffectiveValue().toString());
-//                    }
-//                });
-        //        int finalLiftUpCellsCounter = liftUpCellsCounter;
-//        this.sheet
-//                .getActiveCells()
-//                .keySet()
-//                .stream()
-//                .filter(coordinate -> coordinate.getRow() > to.getRow())
-//                .forEach(oldCoordinate -> {
-//                    Coordinate newCoordinate =
-//                            CoordinateFactory.createCoordinate(
-//                                    oldCoordinate.getRow() - finalLiftUpCellsCounter,
-//                                         oldCoordinate.getCol());
-//                    newSheet.setCell(newCoordinate, sheetToFilter.getCell(oldCoordinate).getEffectiveValue().toString());
-//                });
-        //todo: until here
-
-        return new SheetDto(newSheet);
+        return new SweepResultDto(
+                new SheetDto(base),
+                Arrays.stream(sweep.getValues(0)).boxed().toList(),
+                secondInput == null ? List.of() : Arrays.stream(sweep.getValues(1)).boxed().toList(),
+                outputs);
     }
 
     @Override
-    public SheetDto sort(String userName, String sheetName, Boundaries boundaries, List<String> columns, int version) {
+    public SheetDto filter(String userName, String sheetName, Boundaries boundaries, String column, List<String> values, int version) {
         VersionManager versionManager = getVersionManager(sheetName);
 
         canRead(userName, sheetName);
 
-        Coordinate from = boundaries.getFrom();
-        Coordinate to = boundaries.getTo();
+        Sheet sheetToFilter = versionManager.getVersion(version);
+        BitSet rows = filteredRows(sheetName, sheetToFilter, boundaries, List.of(FilterCondition.valueIn(column, values)));
 
-        int startRow = from.getRow();
-        int endRow = to.getRow();
-        int startCol = from.getCol();
-        int endCol = to.getCol();
+        return new SheetDto(ProjectedSheet.filtered(sheetToFilter, boundaries, rows));
+    }
 
-        SheetGetters sheetToSort = versionManager.getVersion(version);
+    @Override
+    public FilterDesignDto filter(String userName, String sheetName, Boundaries boundaries, List<FilterCondition> conditions, int version) {
+        VersionManager versionManager = getVersionManager(sheetName);
 
-        Sheet newSheet = SheetImpl.create(copyLayout(sheetToSort.getLayout()));
-        //get data in range from the sheet;
-        List<List<CellGetters>> dataToSort = sheetToSort.getCellInRange(startRow,endRow,startCol,endCol);
-        List<Integer> columnsByInt = columnsToIntList(columns);
-        
-        //if all columns integer; else exception
-        for (int col : columnsByInt) {
-            boolean allNumeric = dataToSort.stream()
-                    .map(row -> row.get(col - startCol).getEffectiveValue().toString())  // Get the value in the current column
-                    .allMatch(this::isNumeric);  // Check if the value is numeric
-
-            if (!allNumeric) {
-                throw new IllegalArgumentException("Column " + (char)('A' + col) + " contains non-numeric values");
-            }
-        }
-        
-        //stableSort();
-        dataToSort.sort(createComparator(columnsByInt, startCol));
+        canRead(userName, sheetName);
 
-        //put data into sheet;
-        sheetToSort
-                .getActiveCells()
-                .keySet().stream()
-                .filter(coordinate -> coordinate.getRow() < from.getRow() || coordinate.getRow() > to.getRow() ||
-                        coordinate.getCol() < from.getCol() || coordinate.getCol() > to.getCol())
-                .forEach(coordinate -> {
-                    Cell cell = sheetToSort.getCell(coordinate);
-                    newSheet.setCell(coordinate, cell.getEffectiveValue().toString());
-                    newSheet.getActiveCells().get(coordinate).setUpdateBy(cell.getUpdaterUserName());
+        // The rows are filtered once, the sheet and the coordinate mapping are both built from the same bitmap.
+        Sheet sheetToFilter = versionManager.getVersion(version);
+        BitSet rows = filteredRows(sheetName, sheetToFilter, boundaries, conditions);
 
-                });
+        return new FilterDesignDto(
+                new SheetDto(ProjectedSheet.filtered(sheetToFilter, boundaries, rows)),
+                filteredCoordinates(boundaries, rows),
+                new BoundariesDto(boundaries));
+    }
 
-        RangeImpl.create("dummy",boundaries).toCoordinateCollection()
-                .forEach(coordinate -> {
-                    CellGetters cellGetters = dataToSort.get(coordinate.getRow() - startRow)
-                            .get(coordinate.getCol() - startCol);
-                    String userNameUpdater = cellGetters.getUpdaterUserName();
+    @Override
+    public SheetDto sort(String userName, String sheetName, Boundaries boundaries, List<String> columns, int version) {
+        VersionManager versionManager = getVersionManager(sheetName);
 
-                    newSheet.setCell(coordinate,
-                            cellGetters.getEffectiveValue().toString());
-                    newSheet.getActiveCells().get(coordinate).setUpdateBy(userNameUpdater);
+        canRead(userName, sheetName);
 
-                });
+        // The sorted rows are read through the version, nothing is parsed or recalculated.
+        SheetGetters sheetToSort = versionManager.getVersion(version);
+        int[] permutation = sortedRows(sheetName, sheetToSort, boundaries, columns);
 
-        return new SheetDto(newSheet);
+        return new SheetDto(ProjectedSheet.sorted(sheetToSort, boundaries, permutation));
     }
 
     @Override
@@ -328,23 +257,18 @@ public class EngineImpl implements Engine, Serializable {
         Coordinate from = boundaries.getFrom();
         Coordinate to = boundaries.getTo();
 
-        int startRow = from.getRow();
-        int endRow = to.getRow();
-        int startCol = from.getCol();
-        int endCol = to.getCol();
-
-        SheetGetters sheetToFilter = versionManager.getVersion(version);
-        List<List<CellGetters>> dataToSort = sheetToFilter.getCellInRange(startRow,endRow,startCol,endCol);
-        List<Integer> columnsByInt = columnsToIntList(columns);
-        dataToSort.sort(createComparator(columnsByInt, startCol));
+        SheetGetters sheetToSort = versionManager.getVersion(version);
+        int[] permutation = sortedRows(sheetName, sheetToSort, boundaries, columns);
 
         List<List<CoordinateDto>> dataToSortDto = new ArrayList<>();
 
-        dataToSort.forEach(list -> {
+        for (int sourceOffset : permutation) {
             List<CoordinateDto> tempList = new ArrayList<>();
-            list.forEach(cellGetters -> tempList.add(new CoordinateDto(cellGetters.getCoordinate())));
+            for (int col = from.getCol(); col <= to.getCol(); col++) {
+                tempList.add(new CoordinateDto(from.getRow() + sourceOffset, col));
+            }
             dataToSortDto.add(tempList);
-        });
+        }
 
         return dataToSortDto;
     }
@@ -355,19 +279,22 @@ public class EngineImpl implements Engine, Serializable {
 
         canRead(userName, sheetName);
 
-        Sheet lastVersion = versionManager.getLastVersion();
+        Sheet sheet = versionManager.getVersion(version);
+        List<Object> query = List.of("numeric columns", boundaries.getFrom(), boundaries.getTo());
 
-        List<String> numericColumns = new ArrayList<>();
+        return this.resultCache.get(sheetName, sheet, query, () -> {
+            List<String> numericColumns = new ArrayList<>();
 
-        for (int i = boundaries.getFrom().getCol(); i <= boundaries.getTo().getCol(); i++) {
-            if (lastVersion.isColumnNumericInRange(i, boundaries.getFrom().getRow(), boundaries.getTo().getRow())) {
-                char character = (char) ('A' + i);
-                String column = String.valueOf(character);
-                numericColumns.add(column);
+            for (int i = boundaries.getFrom().getCol(); i <= boundaries.getTo().getCol(); i++) {
+                if (sheet.getColumnStatistics(i, boundaries.getFrom().getRow(), boundaries.getTo().getRow()).isNumeric()) {
+                    char character = (char) ('A' + i);
+                    String column = String.valueOf(character);
+                    numericColumns.add(column);
+                }
             }
-        }
 
-        return numericColumns;
+            return List.copyOf(numericColumns);
+        });
     }
 
     @Override
@@ -378,40 +305,9 @@ public class EngineImpl implements Engine, Serializable {
         canRead(userName, sheetName);
 
         Sheet sheet = versionManager.getVersion(version);
+        BitSet rows = filteredRows(sheetName, sheet, boundariesToFilter, List.of(FilterCondition.valueIn(filteringByColumn, filteringByValues)));
 
-        if (sheet == null) {
-            throw new IllegalArgumentException("Sheet " + sheetName + " does not have a version manager");
-        }
-
-        Coordinate to = boundariesToFilter.getTo();
-        Coordinate from = boundariesToFilter.getFrom();
-
-        int columnInt = CoordinateFactory.parseColumnToInt(filteringByColumn) - 1;
-
-        Map<CoordinateDto, CoordinateDto> oldCoordToNewCoord = new HashMap<>();
-
-        int liftDownCellsCounter = 0;
-
-        for (int i = from.getRow(); i <= to.getRow(); i++) {
-            Cell cell = sheet.getCell(CoordinateFactory.createCoordinate(i, columnInt));
-            String effectiveValueStr;
-            if (cell == null) {
-                effectiveValueStr = "";
-            } else {
-                effectiveValueStr = cell.getEffectiveValue().toString();
-            }
-
-            if (filteringByValues.contains(effectiveValueStr)) {
-                for(int col = from.getCol(); col <= to.getCol(); col++) {
-                    Coordinate oldCoord = CoordinateFactory.createCoordinate(i, col);
-                    Coordinate newCoord = CoordinateFactory.createCoordinate(from.getRow() +liftDownCellsCounter, col);
-                    oldCoordToNewCoord.put(new CoordinateDto(oldCoord), new CoordinateDto(newCoord));
-                }
-                liftDownCellsCounter++;
-            }
-        }
-
-        return oldCoordToNewCoord;
+        return filteredCoordinates(boundariesToFilter, rows);
     }
 
     @Override
@@ -426,34 +322,32 @@ public class EngineImpl implements Engine, Serializable {
             throw new IllegalArgumentException("Sheet " + sheetName + " does not have a version manager");
         }
 
-        return sheet.getColumnUniqueValuesInRange(column, startRow, endRow);
+        List<Object> query = List.of("unique values", column, startRow, endRow);
+
+        return this.resultCache.get(sheetName, sheet, query, () -> sheet.getColumnStatistics(column, startRow, endRow).getDistinctValues());
+    }
+
+    @Override
+    public ResultCacheCounters getResultCacheCounters() {
+        return this.resultCache.getCounters();
     }
 
     @Override
     public void addRange(String userName, String sheetName, int sheetVersion, String name, String boundariesString) {
         VersionManager versionManager = getVersionManager(sheetName);
 
-        canWrite(userName, sheetName, sheetVersion);
+        synchronized (getWriteLock(sheetName)) {
+            canWrite(userName, sheetName, sheetVersion);
 
-        versionManager.makeNewVersion();
+            try {
+                Boundaries boundaries = BoundariesFactory.toBoundaries(boundariesString);
 
-        try {
-            Boundaries boundaries = BoundariesFactory.toBoundaries(boundariesString);
-            boolean sheetChanged = versionManager.getLastVersion().addRange(name, boundaries);
-            if (!sheetChanged)
-            {
-                versionManager.deleteLastVersion();
-                versionManager.getLastVersion().addRange(name, boundaries);
-            }
-
-            Sheet lastVersion = versionManager.getLastVersion();
-            lastVersion.getActiveCells().values().stream()
-                    .filter(cell -> cell.getVersion() == lastVersion.getVersion())
-                    .forEach(cell -> cell.setUpdateBy(userName));
+                // A range that no cell uses yet doesn't open a new version.
+                versionManager.applyDelta(RangeDelta.added(name, boundaries, userName));
 
-        } catch (Exception e) {
-            versionManager.deleteLastVersion();
-            throw new RuntimeException(e);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 
@@ -462,17 +356,19 @@ public class EngineImpl implements Engine, Serializable {
 
         VersionManager versionManager = getVersionManager(sheetName);
 
-        canWrite(userName, sheetName, sheetVersion);
+        synchronized (getWriteLock(sheetName)) {
+            canWrite(userName, sheetName, sheetVersion);
 
-        Sheet lastVersion = versionManager.getLastVersion();
-        RangeGetters range = lastVersion.getRange(rangeName);
-        Collection<Coordinate> coordinates = lastVersion.rangeUses(range);
+            Sheet lastVersion = versionManager.getLastVersion();
+            RangeGetters range = lastVersion.getRange(rangeName);
+            Collection<Coordinate> coordinates = lastVersion.rangeUses(range);
 
-        if (!coordinates.isEmpty()) {
-            throw new RuntimeException("Can not delete range in use !\nCells that using range: " + coordinates);
-        }
+            if (!coordinates.isEmpty()) {
+                throw new RuntimeException("Can not delete range in use !\nCells that using range: " + coordinates);
+            }
 
-        lastVersion.deleteRange(range);
+            versionManager.applyDelta(RangeDelta.deleted(rangeName, userName));
+        }
     }
 
     @Override
@@ -523,13 +419,14 @@ public class EngineImpl implements Engine, Serializable {
     }
 
     @Override
-    public synchronized void addUser(String userName) {
+    public void addUser(String userName) {
         this.userManager.addUser(userName);
     }
 
     @Override
     public void deleteUser(String userName) {
         this.userManager.removeUser(userName);
+        this.dynamicSessionManager.endSession(userName);
     }
 
     @Override
@@ -541,15 +438,13 @@ public class EngineImpl implements Engine, Serializable {
 
         Set<SheetOverviewDto> sheetOverviewDtoSet = new HashSet<>();
 
-        synchronized (this) {
-            sheetNameToVersionManagerMap.forEach((sheetName, versionManager) -> {
-                Sheet sheet = versionManager.getLastVersion();
-                String owner = userToPermissionManagerMap.get(sheetName).getOwner();
-                PermissionType userPermission = getUserPermission(userName, sheetName);
+        sheetNameToVersionManagerMap.forEach((sheetName, versionManager) -> {
+            Sheet sheet = versionManager.getLastVersion();
+            String owner = userToPermissionManagerMap.get(sheetName).getOwner();
+            PermissionType userPermission = getUserPermission(userName, sheetName);
 
-                sheetOverviewDtoSet.add(new SheetOverviewDto(sheet, userPermission, owner));
-            });
-        }
+            sheetOverviewDtoSet.add(new SheetOverviewDto(sheet, userPermission, owner));
+        });
 
         return sheetOverviewDtoSet;
     }
@@ -578,32 +473,89 @@ public class EngineImpl implements Engine, Serializable {
     }
 
 
+    //filter function helpers
+    private BitSet filteredRows(String sheetName, SheetGetters sheet, Boundaries boundaries, List<FilterCondition> conditions) {
+        List<Object> query = List.of("filter", boundaries.getFrom(), boundaries.getTo(), List.copyOf(conditions));
+
+        // The cached bitmap is shared, it is only read from here on.
+        return this.resultCache.get(sheetName, sheet, query, () -> filterRows(sheet, boundaries, conditions));
+    }
+
+    private BitSet filterRows(SheetGetters sheet, Boundaries boundaries, List<FilterCondition> conditions) {
+        Coordinate from = boundaries.getFrom();
+        int rowCount = boundaries.getTo().getRow() - from.getRow() + 1;
+        RowFilter rowFilter = RowFilter.create(rowCount);
+
+        for (FilterCondition condition : conditions) {
+            int columnInt = CoordinateFactory.parseColumnToInt(condition.getColumn()) - 1;
+            Data[] column = new Data[rowCount];
+
+            for (int row = 0; row < rowCount; row++) {
+                CellGetters cell = sheet.getCell(CoordinateFactory.createCoordinate(from.getRow() + row, columnInt));
+                column[row] = cell == null ? DataImpl.EMPTY : cell.getEffectiveValue();
+            }
+
+            rowFilter.where(column, condition);
+        }
+
+        return rowFilter.filter();
+    }
+
+    private Map<CoordinateDto, CoordinateDto> filteredCoordinates(Boundaries boundaries, BitSet rows) {
+        Coordinate from = boundaries.getFrom();
+        Coordinate to = boundaries.getTo();
+
+        Map<CoordinateDto, CoordinateDto> oldCoordToNewCoord = new HashMap<>();
+        int liftDownCellsCounter = 0;
+
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            for(int col = from.getCol(); col <= to.getCol(); col++) {
+                oldCoordToNewCoord.put(new CoordinateDto(from.getRow() + row, col), new CoordinateDto(from.getRow() + liftDownCellsCounter, col));
+            }
+            liftDownCellsCounter++;
+        }
+
+        return oldCoordToNewCoord;
+    }
+
     //sort function helper
-    private Comparator<List<CellGetters>> createComparator(List<Integer> sortByColumns, int startCol) {
-        Comparator<List<CellGetters>> comparator = (row1, row2) -> 0;
+    private int[] sortedRows(String sheetName, SheetGetters sheet, Boundaries boundaries, List<String> columns) {
+        List<Object> query = List.of("sort", boundaries.getFrom(), boundaries.getTo(), List.copyOf(columns));
 
-        for (int col : sortByColumns) {
-            Comparator<List<CellGetters>> columnComparator = (row1, row2) -> {
+        // The cached permutation is shared, it is only read from here on.
+        return this.resultCache.get(sheetName, sheet, query, () -> sortRows(sheet, boundaries, columns));
+    }
 
-                String value1 = row1.get(col - startCol).getEffectiveValue().toString();
-                String value2 = row2.get(col - startCol).getEffectiveValue().toString();
+    private int[] sortRows(SheetGetters sheet, Boundaries boundaries, List<String> columns) {
+        Coordinate from = boundaries.getFrom();
+        Coordinate to = boundaries.getTo();
 
-                //knowing it is double.
-                return Double.compare(Double.parseDouble(value1), Double.parseDouble(value2));
+        int rowCount = to.getRow() - from.getRow() + 1;
+        RowSorter rowSorter = RowSorter.create(rowCount);
 
-                // If both values are numeric, compare them as doubles, extend to lexigrhaphic sort.
-//                if (isNumeric(value1) && isNumeric(value2)) {
-//                    return Double.compare(Double.parseDouble(value1), Double.parseDouble(value2));
-//                } else {
-//                    return value1.compareTo(value2);  // Lexicographic comparison for non-numeric
-//                }
-            };
+        // Each key column is read once into an array, the sort itself only compares numbers.
+        for (int col : columnsToIntList(columns)) {
 
-            // Combine comparators in a stable way (order of columns matters)
-            comparator = comparator.thenComparing(columnComparator);
+            if (col < from.getCol() || col > to.getCol()) {
+                throw new IndexOutOfBoundsException("Column " + (char)('A' + col) + " is not in the sorted range");
+            }
+
+            double[] keys = new double[rowCount];
+
+            for (int row = 0; row < rowCount; row++) {
+                CellGetters cell = sheet.getCell(CoordinateFactory.createCoordinate(from.getRow() + row, col));
+
+                if (cell == null || !cell.getEffectiveValue().isDisplayNumeric()) {
+                    throw new IllegalArgumentException("Column " + (char)('A' + col) + " contains non-numeric values");
+                }
+
+                keys[row] = cell.getEffectiveValue().getDisplayNumber();
+            }
+
+            rowSorter.byNumbers(keys);
         }
 
-        return comparator;
+        return rowSorter.sort();
     }
 
     private List<Integer> columnsToIntList(List<String> columns) {
@@ -615,15 +567,6 @@ public class EngineImpl implements Engine, Serializable {
         return columnsByInt;
     }
 
-    private boolean isNumeric(String value) {
-        try {
-            Double.parseDouble(value);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
     private static STLSheet deserializeFrom(InputStream inputStream) throws JAXBException {
         JAXBContext jc = JAXBContext.newInstance(JAXB_XML_GENERATED_PACKAGE_NAME);
         Unmarshaller unmarshaller = jc.createUnmarshaller();
@@ -634,22 +577,6 @@ public class EngineImpl implements Engine, Serializable {
         return !(layout == null || layout.getRows() > MAX_ROWS || layout.getColumns() > MAX_COLUMNS);
     }
 
-    private Layout copyLayout(LayoutGetters layout) {
-
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(layout);
-            oos.close();
-
-            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
-            return (LayoutImpl) ois.readObject();
-        } catch (Exception e) {
-            // deal with the runtime error that was discovered as part of invocation
-            throw new RuntimeException(e);
-        }
-    }
-
     private VersionManager getVersionManager(String sheetName) {
         VersionManager versionManager = this.sheetNameToVersionManagerMap.get(sheetName);
 
@@ -660,6 +587,16 @@ public class EngineImpl implements Engine, Serializable {
         return versionManager;
     }
 
+    private Object getWriteLock(String sheetName) {
+        Object writeLock = this.sheetNameToWriteLockMap.get(sheetName);
+
+        if (writeLock == null) {
+            throw new RuntimeException("No sheet named " + sheetName);
+        }
+
+        return writeLock;
+    }
+
     private PermissionManager getPermissionManager(String sheetName) {
         PermissionManager permissionManager = this.userToPermissionManagerMap.get(sheetName);
 
@@ -6,6 +6,7 @@ import engine.permissions.api.PermissionManager;
 import engine.permissions.request.Request;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PermissionManagerImpl implements PermissionManager {
     private final String owner;
@@ -15,8 +16,9 @@ public class PermissionManagerImpl implements PermissionManager {
 
     public PermissionManagerImpl(String owner) {
         this.owner = owner;
-        this.readers = new HashSet<>();
-        this.writers = new HashSet<>();
+        // Checked on every request while requests are confirmed.
+        this.readers = ConcurrentHashMap.newKeySet();
+        this.writers = ConcurrentHashMap.newKeySet();
         this.requestsHistory = new ArrayList<>();
         this.requestsHistory.add(new Request(owner,PermissionType.OWNER,Status.CONFIRMED));
     }
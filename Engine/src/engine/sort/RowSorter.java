@@ -0,0 +1,121 @@
+package engine.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Sorts the rows of a range by extracted numeric key columns and returns the order as a permutation,
+// so the cells themselves are never compared or moved while sorting.
+public class RowSorter {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private final int rowCount;
+    private final List<double[]> keys;
+
+    private RowSorter(int rowCount) {
+
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Number of rows cannot be negative");
+        }
+
+        this.rowCount = rowCount;
+        this.keys = new ArrayList<>();
+    }
+
+    public static RowSorter create(int rowCount) {
+        return new RowSorter(rowCount);
+    }
+
+    // Keys are compared in ascending order in the order they are added, each one only breaks the ties of the ones before it.
+    public RowSorter byNumbers(double[] values) {
+
+        if (values.length != this.rowCount) {
+            throw new IllegalArgumentException("Sort key has " + values.length + " values, expected " + this.rowCount);
+        }
+
+        this.keys.add(values);
+
+        return this;
+    }
+
+    // permutation[i] is the original index of the row that ends up at index i, equal rows keep their order.
+    public int[] sort() {
+        int[] permutation = new int[this.rowCount];
+        for (int i = 0; i < this.rowCount; i++) {
+            permutation[i] = i;
+        }
+
+        if (this.keys.isEmpty() || this.rowCount < 2) {
+            return permutation;
+        }
+
+        mergeSort(permutation, new int[this.rowCount], 0, this.rowCount);
+
+        return permutation;
+    }
+
+    private int compare(int firstRow, int secondRow) {
+        for (double[] key : this.keys) {
+            int result = Double.compare(key[firstRow], key[secondRow]);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    // Stable top-down merge sort of rows[from..to).
+    private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(rows, from, to);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, middle);
+        mergeSort(rows, buffer, middle, to);
+
+        // Already in order, nothing to merge.
+        if (compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+
+        merge(rows, buffer, from, middle, to);
+    }
+
+    private void insertionSort(int[] rows, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+
+            while (j >= from && compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+
+            rows[j + 1] = row;
+        }
+    }
+
+    private void merge(int[] rows, int[] buffer, int from, int middle, int to) {
+        System.arraycopy(rows, from, buffer, from, to - from);
+
+        int left = from;
+        int right = middle;
+        int target = from;
+
+        // Ties take the left row first, which is what keeps the sort stable.
+        while (left < middle && right < to) {
+            if (compare(buffer[left], buffer[right]) <= 0) {
+                rows[target++] = buffer[left++];
+            } else {
+                rows[target++] = buffer[right++];
+            }
+        }
+
+        System.arraycopy(buffer, left, rows, target, middle - left);
+        System.arraycopy(buffer, right, rows, target + middle - left, to - right);
+    }
+}
@@ -23,10 +23,10 @@ public class UserManager {
     }
 
     public synchronized List<String> getUsers() {
-        return Collections.unmodifiableList(usersSet);
+        return List.copyOf(usersSet);
     }
 
-    public boolean isUserExists(String username) {
+    public synchronized boolean isUserExists(String username) {
         return usersSet.contains(username);
     }
 }
@@ -1,12 +1,11 @@
 package engine.versions.api;
 
+import engine.versions.delta.SheetDelta;
 import sheet.api.Sheet;
 
 public interface VersionManagerSetters {
     void init(Sheet sheet);
-    void makeNewVersion();
-    void deleteLastVersion();
-//    void clearVersions();
-//    void increaseVersion(Sheet sheet);
-//    void decreaseVersion(Sheet sheet);
+
+    // Opens a new version when the delta recalculated cells, otherwise amends the last version.
+    void applyDelta(SheetDelta delta);
 }
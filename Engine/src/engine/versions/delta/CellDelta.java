@@ -0,0 +1,29 @@
+package engine.versions.delta;
+
+import sheet.api.Sheet;
+import sheet.api.SheetGetters;
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+
+public record CellDelta(
+        Coordinate coordinate,
+        String oldOriginalValue,
+        String newOriginalValue,
+        String updaterUserName
+) implements SheetDelta {
+
+    public static CellDelta create(SheetGetters sheet, Coordinate coordinate, String newOriginalValue, String updaterUserName) {
+        CellGetters cell = sheet.getCell(coordinate);
+        String oldOriginalValue = cell == null ? "" : cell.getOriginalValue();
+
+        return new CellDelta(coordinate, oldOriginalValue, newOriginalValue, updaterUserName);
+    }
+
+    @Override
+    public boolean applyTo(Sheet sheet) {
+        sheet.setCell(coordinate, newOriginalValue);
+        SheetDelta.markUpdatedCells(sheet, updaterUserName);
+
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package engine.versions.delta;
+
+import sheet.api.Sheet;
+import sheet.range.boundaries.api.Boundaries;
+
+public record RangeDelta(
+        Action action,
+        String name,
+        Boundaries boundaries,
+        String updaterUserName
+) implements SheetDelta {
+
+    public enum Action {
+        ADD,
+        DELETE
+    }
+
+    public static RangeDelta added(String name, Boundaries boundaries, String updaterUserName) {
+        return new RangeDelta(Action.ADD, name, boundaries, updaterUserName);
+    }
+
+    public static RangeDelta deleted(String name, String updaterUserName) {
+        return new RangeDelta(Action.DELETE, name, null, updaterUserName);
+    }
+
+    @Override
+    public boolean applyTo(Sheet sheet) {
+        boolean sheetChanged = false;
+
+        if (action == Action.ADD) {
+            sheetChanged = sheet.addRange(name, boundaries);
+
+            if (sheetChanged) {
+                SheetDelta.markUpdatedCells(sheet, updaterUserName);
+            }
+        } else {
+            sheet.deleteRange(sheet.getRange(name));
+        }
+
+        return sheetChanged;
+    }
+}
@@ -0,0 +1,17 @@
+package engine.versions.delta;
+
+import sheet.api.Sheet;
+
+import java.io.Serializable;
+
+public interface SheetDelta extends Serializable {
+
+    // Applies the change to the given sheet, returns true if it recalculated any cell.
+    boolean applyTo(Sheet sheet);
+
+    static void markUpdatedCells(Sheet sheet, String userName) {
+        sheet.getActiveCells().values().stream()
+                .filter(cell -> cell.getVersion() == sheet.getVersion())
+                .forEach(cell -> cell.setUpdateBy(userName));
+    }
+}
@@ -1,71 +1,359 @@
 package engine.versions.impl;
 
 import engine.versions.api.VersionManager;
+import engine.versions.delta.SheetDelta;
+import engine.versions.segment.VersionCodec;
+import engine.versions.segment.VersionSegment;
 import sheet.api.Sheet;
-import sheet.impl.SheetImpl;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.*;
 
 public class VersionManagerImpl implements VersionManager, Serializable {
 
     private final static int FIRST_VERSION = 1;
-    private final List<Sheet> versions;
+    private final static int DEFAULT_CHECKPOINT_INTERVAL = 10;
+    private final static int DEFAULT_CACHE_SIZE = 8;
+    private final static int DEFAULT_HOT_VERSIONS = 64;
 
-    private VersionManagerImpl() {
-        this.versions = new ArrayList<>();
+    private final int checkpointInterval;
+    private final int hotVersions;
+
+    // Everything a reader needs, replaced as a whole by the writer, so readers never lock and never see a version half made.
+    private volatile Snapshot published;
+    private final VersionCache materializedVersions;
+
+    // Entries older than the last hotVersions versions are moved here and read back on demand.
+    private transient volatile VersionSegment segment;
+
+    private VersionManagerImpl(int checkpointInterval, int cacheSize, int hotVersions) {
+
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be a positive integer");
+        }
+
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+
+        if (hotVersions < 1) {
+            throw new IllegalArgumentException("Number of versions kept in memory must be a positive integer");
+        }
+
+        this.checkpointInterval = checkpointInterval;
+        this.hotVersions = hotVersions;
+        this.materializedVersions = new VersionCache(cacheSize);
     }
 
     public static VersionManagerImpl create() {
-        return new VersionManagerImpl();
+        return new VersionManagerImpl(DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_CACHE_SIZE, DEFAULT_HOT_VERSIONS);
+    }
+
+    public static VersionManagerImpl create(int checkpointInterval, int cacheSize, int hotVersions) {
+        return new VersionManagerImpl(checkpointInterval, cacheSize, hotVersions);
     }
 
     @Override
     public List<Sheet> getVersions() {
-        return this.versions;
+        Snapshot snapshot = this.published;
+
+        // A version is materialized only when it is read from the list.
+        return new AbstractList<>() {
+            @Override
+            public Sheet get(int index) {
+                return getVersion(snapshot, FIRST_VERSION + index);
+            }
+
+            @Override
+            public int size() {
+                return snapshot == null ? 0 : snapshot.entries.length;
+            }
+        };
     }
 
     @Override
     public Sheet getVersion(int version) {
-        
-        for (Sheet sheet : this.versions) {
-            if (sheet.getVersion() == version) {
-                return sheet;
-            }
-        }
-
-        throw new IllegalArgumentException("Version " + version + " not found");
+        return getVersion(this.published, version);
     }
 
     @Override
     public Sheet getLastVersion() {
-        return this.versions.getLast();
+        Snapshot snapshot = this.published;
+
+        return snapshot == null ? null : snapshot.lastVersion;
     }
 
     @Override
-    public void init(Sheet sheet) {
-        this.versions.clear();
+    public synchronized void init(Sheet sheet) {
+        synchronized (this.materializedVersions) {
+            this.materializedVersions.clear();
+        }
+
+        closeSegment();
+
         Sheet firstVersion = sheet.copy();
         firstVersion.setVersion(FIRST_VERSION);
-        this.versions.add(firstVersion);
+
+        this.published = new Snapshot(firstVersion, new VersionEntry[] { VersionEntry.of(List.of()) });
     }
 
     @Override
-    public void makeNewVersion() {
-        Sheet lastVersion = getLastVersion();
+    public synchronized void applyDelta(SheetDelta delta) {
+        Snapshot current = this.published;
 
-        if (lastVersion == null) {
+        if (current == null) {
             throw new IllegalArgumentException("No version found, please use the init function to make the first version");
         }
 
-        Sheet newVersion = lastVersion.copy();
-        newVersion.setVersion(newVersion.getVersion() + 1);
-        this.versions.add(newVersion);
+        Sheet previousVersion = current.lastVersion;
+        int previousVersionNumber = previousVersion.getVersion();
+
+        // The delta is applied on a private copy, readers keep the published version until the new one replaces it.
+        Sheet newVersion = previousVersion.copy();
+        newVersion.setVersion(previousVersionNumber + 1);
+
+        // The published entries are never written to, the new snapshot is built on a copy of them.
+        if (delta.applyTo(newVersion)) {
+            VersionEntry[] entries = Arrays.copyOf(current.entries, current.entries.length + 1);
+            int previousIndex = previousVersionNumber - FIRST_VERSION;
+
+            if (isCheckpoint(previousVersionNumber)) {
+                // The previous version can't change anymore, so this is its final state.
+                entries[previousIndex] = entries[previousIndex].withCheckpoint(previousVersion);
+            } else {
+                remember(current, previousVersionNumber, previousVersion);
+            }
+
+            entries[current.entries.length] = VersionEntry.of(List.of(delta));
+
+            int coldVersion = previousVersionNumber + 1 - this.hotVersions;
+            if (coldVersion >= FIRST_VERSION) {
+                spill(entries, coldVersion);
+            }
+
+            this.published = new Snapshot(newVersion, entries);
+        } else {
+            // Nothing was recalculated, so the change belongs to the last version.
+            newVersion.setVersion(previousVersionNumber);
+
+            VersionEntry[] entries = current.entries.clone();
+            int lastIndex = previousVersionNumber - FIRST_VERSION;
+            entries[lastIndex] = entries[lastIndex].withDelta(delta);
+
+            this.published = new Snapshot(newVersion, entries);
+        }
+    }
+
+    private Sheet getVersion(Snapshot snapshot, int version) {
+
+        if (snapshot == null || version < FIRST_VERSION || version >= FIRST_VERSION + snapshot.entries.length) {
+            throw new IllegalArgumentException("Version " + version + " not found");
+        }
+
+        if (version == snapshot.lastVersion.getVersion()) {
+            return snapshot.lastVersion;
+        }
+
+        Sheet sheet = findMaterialized(snapshot, version);
+
+        if (sheet == null) {
+            sheet = replay(snapshot, version);
+            remember(snapshot, version, sheet);
+        }
+
+        return sheet;
     }
 
-    @Override
-    public void deleteLastVersion() {
-        this.versions.removeLast();
+    private Sheet replay(Snapshot snapshot, int version) {
+        // Start from the closest version below that is still in memory, at worst the checkpoint.
+        int baseVersion = version - 1;
+        Sheet base = findMaterialized(snapshot, baseVersion);
+
+        while (base == null) {
+            baseVersion--;
+            base = findMaterialized(snapshot, baseVersion);
+        }
+
+        Sheet sheet = base.copy();
+
+        for (int nextVersion = baseVersion + 1; nextVersion <= version; nextVersion++) {
+            sheet.setVersion(nextVersion);
+            for (SheetDelta delta : deltasOf(snapshot, nextVersion)) {
+                delta.applyTo(sheet);
+            }
+        }
+
+        return sheet;
+    }
+
+    private Sheet findMaterialized(Snapshot snapshot, int version) {
+        VersionEntry entry = snapshot.entryOf(version);
+
+        if (entry.checkpoint != null) {
+            return entry.checkpoint;
+        }
+
+        synchronized (this.materializedVersions) {
+            Sheet cached = this.materializedVersions.get(version);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        SoftReference<Sheet> materialized = entry.materialized;
+        Sheet softlyReachable = materialized == null ? null : materialized.get();
+
+        if (softlyReachable == null && entry.isSpilled() && isCheckpoint(version)) {
+            softlyReachable = VersionCodec.decodeCheckpoint(this.segment.map(entry.spillPosition, entry.spillLength));
+            remember(snapshot, version, softlyReachable);
+        }
+
+        return softlyReachable;
+    }
+
+    private List<SheetDelta> deltasOf(Snapshot snapshot, int version) {
+        VersionEntry entry = snapshot.entryOf(version);
+        List<SheetDelta> deltas = entry.deltas;
+
+        return deltas != null ? deltas : VersionCodec.decodeDeltas(this.segment.map(entry.spillPosition, entry.spillLength));
+    }
+
+    private void spill(VersionEntry[] entries, int version) {
+        VersionEntry entry = entries[version - FIRST_VERSION];
+
+        if (entry.isSpilled()) {
+            return;
+        }
+
+        if (this.segment == null) {
+            this.segment = VersionSegment.create();
+        }
+
+        byte[] record = VersionCodec.encode(entry.deltas, entry.checkpoint);
+        long position = this.segment.append(record);
+
+        // Readers of the published snapshot keep the entry with the heap copies, the new one points at the record.
+        entries[version - FIRST_VERSION] = entry.spilled(position, record.length);
+    }
+
+    private void closeSegment() {
+        if (this.segment != null) {
+            try {
+                this.segment.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to close version segment", e);
+            }
+
+            this.segment = null;
+        }
+    }
+
+    private void remember(Snapshot snapshot, int version, Sheet sheet) {
+        synchronized (this.materializedVersions) {
+            this.materializedVersions.put(version, sheet);
+        }
+
+        // Versions that fell out of the cache stay reachable until the GC needs the memory.
+        snapshot.entryOf(version).materialized = new SoftReference<>(sheet);
+    }
+
+    // The segment file is not serialized, so spilled entries are written with their deltas and checkpoint back in them.
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Snapshot snapshot = this.published;
+
+        if (snapshot != null) {
+            VersionEntry[] entries = snapshot.entries.clone();
+
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].isSpilled()) {
+                    ByteBuffer record = this.segment.map(entries[i].spillPosition, entries[i].spillLength);
+                    entries[i] = entries[i].restored(VersionCodec.decodeDeltas(record.duplicate()), VersionCodec.decodeCheckpoint(record));
+                }
+            }
+
+            snapshot = new Snapshot(snapshot.lastVersion, entries);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("checkpointInterval", this.checkpointInterval);
+        fields.put("hotVersions", this.hotVersions);
+        fields.put("published", snapshot);
+        fields.put("materializedVersions", this.materializedVersions);
+        out.writeFields();
+    }
+
+    private boolean isCheckpoint(int version) {
+        return version == FIRST_VERSION || version % this.checkpointInterval == 0;
+    }
+
+    // The entries array is not written to once the snapshot is published.
+    private record Snapshot(Sheet lastVersion, VersionEntry[] entries) implements Serializable {
+
+        private VersionEntry entryOf(int version) {
+            return this.entries[version - FIRST_VERSION];
+        }
+    }
+
+    // Never changed once it is in the entries, apart from the materialized hint, the writer replaces it with a changed copy instead.
+    private static class VersionEntry implements Serializable {
+        private final List<SheetDelta> deltas;
+        private final Sheet checkpoint;
+        private final long spillPosition;
+        private final int spillLength;
+        // Only a hint, readers fill it in and a replaced entry may lose it.
+        private transient volatile SoftReference<Sheet> materialized;
+
+        private VersionEntry(List<SheetDelta> deltas, Sheet checkpoint, long spillPosition, int spillLength, SoftReference<Sheet> materialized) {
+            this.deltas = deltas;
+            this.checkpoint = checkpoint;
+            this.spillPosition = spillPosition;
+            this.spillLength = spillLength;
+            this.materialized = materialized;
+        }
+
+        private static VersionEntry of(List<SheetDelta> deltas) {
+            return new VersionEntry(deltas, null, -1, 0, null);
+        }
+
+        private VersionEntry withDelta(SheetDelta delta) {
+            List<SheetDelta> deltas = new ArrayList<>(this.deltas);
+            deltas.add(delta);
+
+            return new VersionEntry(Collections.unmodifiableList(deltas), this.checkpoint, this.spillPosition, this.spillLength, this.materialized);
+        }
+
+        private VersionEntry withCheckpoint(Sheet checkpoint) {
+            return new VersionEntry(this.deltas, checkpoint, this.spillPosition, this.spillLength, this.materialized);
+        }
+
+        private VersionEntry spilled(long spillPosition, int spillLength) {
+            return new VersionEntry(null, null, spillPosition, spillLength, this.materialized);
+        }
+
+        private VersionEntry restored(List<SheetDelta> deltas, Sheet checkpoint) {
+            return new VersionEntry(deltas, checkpoint, -1, 0, this.materialized);
+        }
+
+        private boolean isSpilled() {
+            return this.spillPosition >= 0;
+        }
+    }
+
+    private static class VersionCache extends LinkedHashMap<Integer, Sheet> {
+
+        private final int capacity;
+
+        private VersionCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Sheet> eldest) {
+            return size() > this.capacity;
+        }
     }
 }
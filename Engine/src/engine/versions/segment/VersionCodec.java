@@ -0,0 +1,247 @@
+package engine.versions.segment;
+
+import engine.versions.delta.CellDelta;
+import engine.versions.delta.RangeDelta;
+import engine.versions.delta.SheetDelta;
+import sheet.api.Sheet;
+import sheet.api.SheetGetters;
+import sheet.cell.api.Cell;
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+import sheet.coordinate.impl.CoordinateFactory;
+import sheet.impl.SheetImpl;
+import sheet.layout.api.LayoutGetters;
+import sheet.layout.impl.LayoutImpl;
+import sheet.layout.size.impl.SizeImpl;
+import sheet.range.api.RangeGetters;
+import sheet.range.boundaries.api.Boundaries;
+import sheet.range.boundaries.impl.BoundariesFactory;
+import sheet.recalculation.api.RecalculationMode;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact binary form of a version entry: its deltas and, for checkpoints, the cells' original values.
+// Effective values are not written, they are recalculated when the checkpoint is read back.
+public class VersionCodec {
+
+    private static final byte CELL_DELTA = 1;
+    private static final byte RANGE_DELTA = 2;
+
+    private VersionCodec() {}
+
+    public static byte[] encode(List<SheetDelta> deltas, SheetGetters checkpoint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(deltas.size());
+            for (SheetDelta delta : deltas) {
+                writeDelta(out, delta);
+            }
+
+            out.writeBoolean(checkpoint != null);
+            if (checkpoint != null) {
+                writeSheet(out, checkpoint);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode version", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    public static List<SheetDelta> decodeDeltas(ByteBuffer record) {
+        try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(record))) {
+            return readDeltas(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode version deltas", e);
+        }
+    }
+
+    public static Sheet decodeCheckpoint(ByteBuffer record) {
+        try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(record))) {
+            readDeltas(in);
+            return in.readBoolean() ? readSheet(in) : null;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode version checkpoint", e);
+        }
+    }
+
+    private static void writeDelta(DataOutputStream out, SheetDelta delta) throws IOException {
+        if (delta instanceof CellDelta cellDelta) {
+            out.writeByte(CELL_DELTA);
+            writeCoordinate(out, cellDelta.coordinate());
+            writeString(out, cellDelta.oldOriginalValue());
+            writeString(out, cellDelta.newOriginalValue());
+            writeString(out, cellDelta.updaterUserName());
+        } else if (delta instanceof RangeDelta rangeDelta) {
+            out.writeByte(RANGE_DELTA);
+            out.writeByte(rangeDelta.action().ordinal());
+            writeString(out, rangeDelta.name());
+            out.writeBoolean(rangeDelta.boundaries() != null);
+            if (rangeDelta.boundaries() != null) {
+                writeCoordinate(out, rangeDelta.boundaries().getFrom());
+                writeCoordinate(out, rangeDelta.boundaries().getTo());
+            }
+            writeString(out, rangeDelta.updaterUserName());
+        } else {
+            throw new IllegalArgumentException("Unsupported delta type: " + delta.getClass().getSimpleName());
+        }
+    }
+
+    private static List<SheetDelta> readDeltas(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<SheetDelta> deltas = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+
+            if (type == CELL_DELTA) {
+                deltas.add(new CellDelta(readCoordinate(in), readString(in), readString(in), readString(in)));
+            } else if (type == RANGE_DELTA) {
+                RangeDelta.Action action = RangeDelta.Action.values()[in.readByte()];
+                String name = readString(in);
+                Boundaries boundaries = in.readBoolean() ? BoundariesFactory.createBoundaries(readCoordinate(in), readCoordinate(in)) : null;
+                deltas.add(new RangeDelta(action, name, boundaries, readString(in)));
+            } else {
+                throw new IOException("Unknown delta type " + type);
+            }
+        }
+
+        return deltas;
+    }
+
+    private static void writeSheet(DataOutputStream out, SheetGetters sheet) throws IOException {
+        LayoutGetters layout = sheet.getLayout();
+
+        writeString(out, sheet.getName());
+        out.writeInt(layout.getSize().getWidth());
+        out.writeInt(layout.getSize().getHeight());
+        out.writeInt(layout.getRows());
+        out.writeInt(layout.getColumns());
+        out.writeInt(sheet.getVersion());
+        out.writeByte(sheet.getRecalculationMode().ordinal());
+
+        out.writeInt(sheet.getRanges().size());
+        for (RangeGetters range : sheet.getRanges()) {
+            writeString(out, range.getName());
+            writeCoordinate(out, range.getBoundaries().getFrom());
+            writeCoordinate(out, range.getBoundaries().getTo());
+        }
+
+        out.writeInt(sheet.getActiveCells().size());
+        for (CellGetters cell : sheet.getActiveCells().values()) {
+            writeCoordinate(out, cell.getCoordinate());
+            out.writeInt(cell.getVersion());
+            writeString(out, cell.getUpdaterUserName());
+            writeString(out, cell.getOriginalValue());
+        }
+    }
+
+    private static Sheet readSheet(DataInputStream in) throws IOException {
+        String name = readString(in);
+        int width = in.readInt();
+        int height = in.readInt();
+        int rows = in.readInt();
+        int columns = in.readInt();
+
+        Sheet sheet = SheetImpl.create(name, LayoutImpl.create(SizeImpl.create(width, height), rows, columns));
+        sheet.setVersion(in.readInt());
+        sheet.setRecalculationMode(RecalculationMode.values()[in.readByte()]);
+
+        int rangesCount = in.readInt();
+        for (int i = 0; i < rangesCount; i++) {
+            String rangeName = readString(in);
+            sheet.addRange(rangeName, BoundariesFactory.createBoundaries(readCoordinate(in), readCoordinate(in)));
+        }
+
+        int cellsCount = in.readInt();
+        Map<Coordinate, String> originalValues = new HashMap<>();
+        Map<Coordinate, Integer> versions = new HashMap<>();
+        Map<Coordinate, String> updaters = new HashMap<>();
+
+        for (int i = 0; i < cellsCount; i++) {
+            Coordinate coordinate = readCoordinate(in);
+            versions.put(coordinate, in.readInt());
+            updaters.put(coordinate, readString(in));
+            originalValues.put(coordinate, readString(in));
+        }
+
+        sheet.setCells(originalValues);
+
+        // Recalculation stamps every cell with the sheet version, so put back what each cell had.
+        originalValues.keySet().forEach(coordinate -> {
+            Cell cell = sheet.getActiveCells().get(coordinate);
+            cell.setVersion(versions.get(coordinate));
+            cell.setUpdateBy(updaters.get(coordinate));
+        });
+
+        return sheet;
+    }
+
+    private static void writeCoordinate(DataOutputStream out, Coordinate coordinate) throws IOException {
+        out.writeShort(coordinate.getRow());
+        out.writeShort(coordinate.getCol());
+    }
+
+    private static Coordinate readCoordinate(DataInputStream in) throws IOException {
+        int row = in.readShort();
+        int column = in.readShort();
+
+        return CoordinateFactory.createCoordinate(row, column);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+
+            return count;
+        }
+    }
+}
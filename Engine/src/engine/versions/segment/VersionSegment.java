@@ -0,0 +1,92 @@
+package engine.versions.segment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class VersionSegment implements Closeable {
+
+    private static final String FILE_PREFIX = "shticell-versions-";
+    private static final String FILE_SUFFIX = ".seg";
+
+    private final Path path;
+    private final FileChannel channel;
+    private long size;
+    // The whole segment as it was when last mapped, records are read as slices of it.
+    private volatile MappedByteBuffer mapped;
+
+    private VersionSegment(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        this.size = 0;
+    }
+
+    public static VersionSegment create() {
+        try {
+            Path path = Files.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+            path.toFile().deleteOnExit();
+
+            return new VersionSegment(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create version segment file", e);
+        }
+    }
+
+    // Appends a record to the end of the segment and returns its position.
+    public synchronized long append(byte[] record) {
+        long position = this.size;
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+
+        try {
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to version segment " + this.path, e);
+        }
+
+        this.size += record.length;
+
+        return position;
+    }
+
+    public ByteBuffer map(long position, int length) {
+        MappedByteBuffer view = this.mapped;
+
+        if (view == null || position + length > view.capacity()) {
+            view = remap();
+        }
+
+        return view.slice((int) position, length);
+    }
+
+    // Only records appended since the last mapping need a new one, so a replay over many records maps once.
+    private synchronized MappedByteBuffer remap() {
+
+        if (this.size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Version segment " + this.path + " is larger than a single mapping");
+        }
+
+        if (this.mapped == null || this.mapped.capacity() < this.size) {
+            try {
+                this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read from version segment " + this.path, e);
+            }
+        }
+
+        return this.mapped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.mapped = null;
+        this.channel.close();
+        Files.deleteIfExists(this.path);
+    }
+}
@@ -3,4 +3,12 @@ package expression.api;
 public interface Data {
     DataType getType();
     Object getValue();
+
+    // Primitive views of the value, so numbers and booleans are read without unboxing.
+    double getNumber();
+    boolean getBoolean();
+
+    // The displayed value read back as a number, the way sorting and numeric checks see it.
+    boolean isDisplayNumeric();
+    double getDisplayNumber();
 }
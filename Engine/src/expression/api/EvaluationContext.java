@@ -0,0 +1,37 @@
+package expression.api;
+
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+import sheet.range.aggregate.api.RangeAggregate;
+import sheet.range.api.RangeGetters;
+
+// Everything an expression may read while it is evaluated, passed in by whoever evaluates it.
+public interface EvaluationContext {
+    CellGetters getCell(Coordinate coordinate);
+    RangeGetters getRange(String rangeName);
+    RangeAggregate getRangeAggregate(String rangeName);
+    int getVersion();
+
+    // For expressions that read nothing from a sheet, like literals evaluated while parsing.
+    EvaluationContext NONE = new EvaluationContext() {
+        @Override
+        public CellGetters getCell(Coordinate coordinate) {
+            return null;
+        }
+
+        @Override
+        public RangeGetters getRange(String rangeName) {
+            return null;
+        }
+
+        @Override
+        public RangeAggregate getRangeAggregate(String rangeName) {
+            return null;
+        }
+
+        @Override
+        public int getVersion() {
+            return 0;
+        }
+    };
+}
@@ -1,7 +1,7 @@
 package expression.api;
 
 public interface Expression {
-    Data evaluate();
+    Data evaluate(EvaluationContext context);
     boolean isValidArgs(Object...args);
     DataType getType();
 }
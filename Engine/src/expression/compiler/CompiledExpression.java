@@ -0,0 +1,9 @@
+package expression.compiler;
+
+import expression.api.Data;
+import expression.api.EvaluationContext;
+
+@FunctionalInterface
+public interface CompiledExpression {
+    Data evaluate(EvaluationContext context);
+}
@@ -0,0 +1,198 @@
+package expression.compiler;
+
+import expression.api.Data;
+import expression.api.DataType;
+import expression.api.EvaluationContext;
+import expression.api.Expression;
+import expression.impl.*;
+import expression.impl.Number;
+import sheet.range.aggregate.api.RangeAggregate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+
+// Turns an expression tree into a chain of closures. Arithmetic is done on primitive doubles,
+// and only the root of an arithmetic chain wraps its result in a Data.
+public class FormulaCompiler {
+
+    private static final int CACHE_SIZE = 4096;
+
+    private static final Map<String, CompiledExpression> compiledFormulas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private FormulaCompiler() {}
+
+    public static CompiledExpression compile(String formula, Expression expression) {
+        CompiledExpression compiled;
+
+        synchronized (compiledFormulas) {
+            compiled = compiledFormulas.get(formula);
+        }
+
+        if (compiled != null) {
+            return compiled;
+        }
+
+        // Compiled outside the lock, so evaluations on other threads don't wait for it. A formula compiled twice
+        // at the same time gives equal closures, the first one in is kept.
+        compiled = compile(expression);
+
+        synchronized (compiledFormulas) {
+            CompiledExpression existing = compiledFormulas.putIfAbsent(formula, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    private static CompiledExpression compile(Expression expression) {
+
+        if (isArithmetic(expression)) {
+            NumericExpression numeric = compileNumeric(expression);
+
+            return context -> {
+                try {
+                    return DataImpl.ofNumber(numeric.evaluate(context));
+                } catch (NotNumericException exception) {
+                    return DataImpl.UNKNOWN_NUMBER;
+                }
+            };
+        }
+
+        return switch (expression) {
+            case Number number -> constant(number);
+            case RawString rawString -> constant(rawString);
+            case BooleanExpression booleanExpression -> constant(booleanExpression);
+            case NonValueExpression nonValueExpression -> constant(nonValueExpression);
+            case Bigger bigger -> compileComparison(bigger, (left, right) -> left >= right);
+            case Less less -> compileComparison(less, (left, right) -> left <= right);
+            default -> expression::evaluate;
+        };
+    }
+
+    private static NumericExpression compileNumeric(Expression expression) {
+        return switch (expression) {
+            case Number number -> {
+                double value = number.getValue();
+                yield context -> value;
+            }
+            case Plus plus -> compileBinary(plus, Double::sum);
+            case Minus minus -> compileBinary(minus, (left, right) -> left - right);
+            case Times times -> compileBinary(times, (left, right) -> left * right);
+            case Pow pow -> compileBinary(pow, Math::pow);
+            case Percent percent -> compileBinary(percent, (left, right) -> left * right / 100);
+            case Divide divide -> compileBinary(divide, (left, right) -> left / nonZero(right));
+            case Mod mod -> compileBinary(mod, (left, right) -> left % nonZero(right));
+            case Abs abs -> {
+                NumericExpression input = compileNumeric(abs.getInput());
+                yield context -> Math.abs(input.evaluate(context));
+            }
+            case Sum sum when sum.getInput() instanceof RawString rangeName -> compileRangeSum(rangeName.toString());
+            case Average average when average.getInput() instanceof RawString rangeName -> compileRangeAverage(rangeName.toString());
+            // REF and anything else are evaluated as usual and checked for a number.
+            default -> context -> toNumber(expression.evaluate(context));
+        };
+    }
+
+    private static NumericExpression compileBinary(BinaryExpression expression, DoubleBinaryOperator operator) {
+        NumericExpression left = compileNumeric(expression.getLeft());
+        NumericExpression right = compileNumeric(expression.getRight());
+
+        return context -> {
+            double leftValue = left.evaluate(context);
+            return operator.applyAsDouble(leftValue, right.evaluate(context));
+        };
+    }
+
+    // A range total inside arithmetic is read straight from the range aggregate, no Data is made for it.
+    private static NumericExpression compileRangeSum(String rangeName) {
+        return context -> {
+            RangeAggregate aggregate = context.getRangeAggregate(rangeName);
+
+            if (aggregate == null || Double.isNaN(aggregate.getSum())) {
+                throw NotNumericException.INSTANCE;
+            }
+
+            return aggregate.getSum();
+        };
+    }
+
+    private static NumericExpression compileRangeAverage(String rangeName) {
+        return context -> {
+            RangeAggregate aggregate = context.getRangeAggregate(rangeName);
+
+            if (aggregate == null) {
+                throw NotNumericException.INSTANCE;
+            }
+
+            return aggregate.getSum() / aggregate.getNumericCount();
+        };
+    }
+
+    private static CompiledExpression compileComparison(BinaryExpression expression, DoubleComparison comparison) {
+        NumericExpression left = compileNumeric(expression.getLeft());
+        NumericExpression right = compileNumeric(expression.getRight());
+
+        return context -> {
+            try {
+                double leftValue = left.evaluate(context);
+                return DataImpl.ofBoolean(comparison.test(leftValue, right.evaluate(context)));
+            } catch (NotNumericException exception) {
+                return DataImpl.UNKNOWN_BOOLEAN;
+            }
+        };
+    }
+
+    private static CompiledExpression constant(Expression expression) {
+        Data value = expression.evaluate(EvaluationContext.NONE);
+
+        return context -> value;
+    }
+
+    private static boolean isArithmetic(Expression expression) {
+        return expression instanceof Plus || expression instanceof Minus || expression instanceof Times
+                || expression instanceof Divide || expression instanceof Mod || expression instanceof Pow
+                || expression instanceof Percent || expression instanceof Abs;
+    }
+
+    private static double toNumber(Data data) {
+
+        if (data.getType() != DataType.NUMERIC) {
+            throw NotNumericException.INSTANCE;
+        }
+
+        return data.getNumber();
+    }
+
+    private static double nonZero(double value) {
+
+        if (value == 0) {
+            throw NotNumericException.INSTANCE;
+        }
+
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface NumericExpression {
+        double evaluate(EvaluationContext context);
+    }
+
+    @FunctionalInterface
+    private interface DoubleComparison {
+        boolean test(double left, double right);
+    }
+
+    // Thrown when an operand is not a number, the root of the chain turns it into the matching UNKNOWN value.
+    private static class NotNumericException extends RuntimeException {
+
+        private static final NotNumericException INSTANCE = new NotNumericException();
+
+        private NotNumericException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
 
 import java.util.Arrays;
@@ -14,9 +15,9 @@ public class Abs extends UnaryExpression {
     }
 
     @Override
-    protected Data dynamicEvaluate(Data input) {
-        return input.getType() == DataType.NUMERIC ? new DataImpl(DataType.NUMERIC, Math.abs((double)input.getValue()))
-                : new DataImpl(DataType.UNKNOWN, Double.NaN);
+    protected Data dynamicEvaluate(Data input, EvaluationContext context) {
+        return input.getType() == DataType.NUMERIC ? DataImpl.ofNumber(Math.abs(input.getNumber()))
+                : DataImpl.UNKNOWN_NUMBER;
     }
 
     @Override
@@ -2,41 +2,27 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
-import sheet.api.SheetGetters;
-import sheet.cell.api.CellGetters;
-import sheet.range.api.Range;
-import sheet.range.api.RangeGetters;
-
-import java.util.Objects;
+import sheet.range.aggregate.api.RangeAggregate;
 
 public class Average extends UnaryExpression {
 
-    public static SheetGetters sheetView;
-
     public Average(Expression input) {
         super(input);
         setDataType(DataType.NUMERIC);
     }
 
     @Override
-    protected Data dynamicEvaluate(Data input) {
-        Data data = new DataImpl(DataType.UNKNOWN,Double.NaN);
+    protected Data dynamicEvaluate(Data input, EvaluationContext context) {
+        Data data = DataImpl.UNKNOWN_NUMBER;
 
         if(input.getType() == DataType.STRING) {
 
-            double sumOfNumericCells = (double) new Sum(new RawString((String) input.getValue())).evaluate().getValue();
-            RangeGetters range = sheetView.getRange((String) input.getValue());
-
-            if (range != null) {
-                double numberOfCells = range.toCoordinateCollection().stream()
-                                            .map(coordinate -> sheetView.getCell(coordinate))
-                                            .filter(Objects::nonNull)
-                                            .map(CellGetters::getEffectiveValue)
-                                            .filter(dataInCell -> dataInCell.getType() == DataType.NUMERIC)
-                                            .count();
+            RangeAggregate aggregate = context.getRangeAggregate((String) input.getValue());
 
-                data = new DataImpl(DataType.NUMERIC,sumOfNumericCells/numberOfCells);
+            if (aggregate != null) {
+                data = DataImpl.ofNumber(aggregate.getSum()/aggregate.getNumericCount());
             }
         }
 
@@ -13,8 +13,8 @@ public class Bigger extends BinaryExpression {
 
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
-        return left.getType() == DataType.NUMERIC && right.getType() == DataType.NUMERIC  ? new DataImpl(DataType.BOOLEAN,(double)left.getValue() >= (double)right.getValue())
-                : new DataImpl(DataType.UNKNOWN,DataImpl.BoolUndefiled);
+        return left.getType() == DataType.NUMERIC && right.getType() == DataType.NUMERIC  ? DataImpl.ofBoolean(left.getNumber() >= right.getNumber())
+                : DataImpl.UNKNOWN_BOOLEAN;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package expression.impl;
 import expression.api.Data;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
 
 public abstract class BinaryExpression extends ExpressionImpl {
@@ -13,9 +14,17 @@ public abstract class BinaryExpression extends ExpressionImpl {
         this.right = right;
     }
 
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+
     @Override
-    public Data evaluate() {
-        return dynamicEvaluate(left.evaluate(), right.evaluate());
+    public Data evaluate(EvaluationContext context) {
+        return dynamicEvaluate(left.evaluate(context), right.evaluate(context));
     }
 
     protected abstract Data dynamicEvaluate(Data left, Data right);
@@ -1,6 +1,7 @@
 package expression.impl;
 
 import expression.api.Data;
+import expression.api.EvaluationContext;
 import expression.api.DataType;
 
 public class BooleanExpression extends ExpressionImpl {
@@ -14,8 +15,8 @@ public class BooleanExpression extends ExpressionImpl {
 
 
     @Override
-    public Data evaluate() {
-        return new DataImpl(DataType.BOOLEAN, value);
+    public Data evaluate(EvaluationContext context) {
+        return DataImpl.ofBoolean(value);
     }
 
     @Override
@@ -9,7 +9,7 @@ import java.util.Arrays;
 
 public class Concat extends BinaryExpression {
 
-    private Concat(Expression left, Expression right) {
+    public Concat(Expression left, Expression right) {
         super(left, right);
         setDataType(DataType.STRING);
      }
@@ -17,8 +17,8 @@ public class Concat extends BinaryExpression {
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
         return left.getType() == DataType.STRING && right.getType() == DataType.STRING ?
-                new DataImpl(DataType.STRING, String.join("",(String) left.getValue(), (String) right.getValue()))
-                : new DataImpl(DataType.UNKNOWN,DataImpl.undefiled);
+                DataImpl.ofString(String.join("",(String) left.getValue(), (String) right.getValue()))
+                : DataImpl.UNKNOWN_STRING;
     }
 
     @Override
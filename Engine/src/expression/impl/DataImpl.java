@@ -2,6 +2,7 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.parser.NumericValueUtils;
 
 import java.io.Serializable;
 import java.util.Objects;
@@ -12,16 +13,68 @@ public class DataImpl implements Data, Serializable {
     public static final String BoolUndefiled = "UNKNOWN";
     public static final String empty = "";
 
-    private DataType type;
-    private Object value;
+    // Values that carry no payload are shared, a failed evaluation doesn't allocate anything.
+    public static final Data TRUE = new DataImpl(DataType.BOOLEAN, Double.NaN, Boolean.TRUE);
+    public static final Data FALSE = new DataImpl(DataType.BOOLEAN, Double.NaN, Boolean.FALSE);
+    public static final Data UNKNOWN_NUMBER = new DataImpl(DataType.UNKNOWN, Double.NaN, Double.NaN);
+    public static final Data UNKNOWN_BOOLEAN = new DataImpl(DataType.UNKNOWN, Double.NaN, BoolUndefiled);
+    public static final Data UNKNOWN_STRING = new DataImpl(DataType.UNKNOWN, Double.NaN, undefiled);
+    public static final Data UNKNOWN_TYPE = new DataImpl(DataType.UNKNOWN, Double.NaN, DataType.UNKNOWN);
+    public static final Data EMPTY = new DataImpl(DataType.UNKNOWN, Double.NaN, empty);
+    public static final Data EMPTY_STRING = new DataImpl(DataType.STRING, Double.NaN, empty);
 
-    public DataImpl() {}
+    private final DataType type;
+    // Numbers live here unboxed, value holds everything else.
+    private final double number;
+    private final Object value;
+    // Built on first display and kept, values are immutable so it never goes stale.
+    private transient Display display;
 
-    public DataImpl(DataType type, Object value) {
+    private DataImpl(DataType type, double number, Object value) {
         this.type = type;
+        this.number = number;
         this.value = value;
     }
 
+    public DataImpl(DataType type, Object value) {
+        this(type, value instanceof Double numberValue ? numberValue : Double.NaN, type == DataType.NUMERIC ? null : value);
+    }
+
+    public static Data ofNumber(double number) {
+        return new DataImpl(DataType.NUMERIC, number, null);
+    }
+
+    public static Data ofBoolean(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static Data ofString(String value) {
+        return value.isEmpty() ? EMPTY_STRING : new DataImpl(DataType.STRING, Double.NaN, value);
+    }
+
+    // For values whose type is only known at runtime, like the branches of an IF.
+    public static Data of(DataType type, Object value) {
+        return switch (type) {
+            case NUMERIC -> ofNumber((double) value);
+            case BOOLEAN -> ofBoolean((boolean) value);
+            case STRING -> ofString((String) value);
+            case UNKNOWN -> {
+                if (value instanceof Double numberValue && numberValue.isNaN()) {
+                    yield UNKNOWN_NUMBER;
+                } else if (BoolUndefiled.equals(value)) {
+                    yield UNKNOWN_BOOLEAN;
+                } else if (undefiled.equals(value)) {
+                    yield UNKNOWN_STRING;
+                } else if (empty.equals(value)) {
+                    yield EMPTY;
+                } else if (value == DataType.UNKNOWN) {
+                    yield UNKNOWN_TYPE;
+                }
+                yield new DataImpl(type, value);
+            }
+        };
+    }
+
     @Override
     public DataType getType() {
         return type;
@@ -29,19 +82,55 @@ public class DataImpl implements Data, Serializable {
 
     @Override
     public Object getValue() {
-        return value;
+        return type == DataType.NUMERIC ? number : value;
+    }
+
+    @Override
+    public double getNumber() {
+        return number;
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return Boolean.TRUE.equals(value);
+    }
+
+    @Override
+    public boolean isDisplayNumeric() {
+        return display().numeric();
+    }
+
+    @Override
+    public double getDisplayNumber() {
+        return display().number();
     }
 
     @Override
     public String toString() {
+        return display().text();
+    }
+
+    private Display display() {
+        Display current = display;
+
+        if (current == null) {
+            String text = format();
+            boolean numeric = NumericValueUtils.isNumeric(text);
+            current = new Display(text, numeric, numeric ? Double.parseDouble(text) : Double.NaN);
+            display = current;
+        }
+
+        return current;
+    }
+
+    private String format() {
         if (type == DataType.NUMERIC) {
-            double valueDouble = (double) value;
-            int valueInt = (int) valueDouble;
-            if (valueInt == valueDouble) {
+            int valueInt = (int) number;
+            if (valueInt == number) {
                 return Integer.toString(valueInt);
             }
             else{
-                return String.format("%.2f", valueDouble);
+                return String.format("%.2f", number);
             }
         }
         if (type == DataType.BOOLEAN) {
@@ -55,11 +144,19 @@ public class DataImpl implements Data, Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DataImpl data = (DataImpl) o;
-        return type == data.type && Objects.equals(value, data.value);
+        // Same rule as Double.equals, NaN equals NaN and 0.0 differs from -0.0.
+        return type == data.type && Double.compare(number, data.number) == 0 && Objects.equals(value, data.value);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, value);
+        return Objects.hash(type, Double.hashCode(number), value);
+    }
+
+    // Keeps the shared values unique after deserialization, so identity checks against them still hold.
+    private Object readResolve() {
+        return type == DataType.NUMERIC ? this : of(type, getValue());
     }
+
+    private record Display(String text, boolean numeric, double number) {}
 }
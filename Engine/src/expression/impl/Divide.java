@@ -18,15 +18,15 @@ public class Divide extends BinaryExpression {
         Data d;
 
         if(left.getType() == DataType.NUMERIC && right.getType() == DataType.NUMERIC) {
-            if((double) right.getValue() == 0) {
-               d = new DataImpl(DataType.UNKNOWN, Double.NaN);
+            if(right.getNumber() == 0) {
+               d = DataImpl.UNKNOWN_NUMBER;
             }
             else {
-                d = new DataImpl(DataType.NUMERIC, (double) left.getValue() /(double) right.getValue());
+                d = DataImpl.ofNumber(left.getNumber() / right.getNumber());
             }
         }
         else {
-            d = new DataImpl(DataType.UNKNOWN, Double.NaN);
+            d = DataImpl.UNKNOWN_NUMBER;
         }
 
         return d;
@@ -13,8 +13,8 @@ public class Equal extends BinaryExpression {
 
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
-        return left.getType() == right.getType() ? new DataImpl(DataType.BOOLEAN, true)
-                : new DataImpl(DataType.BOOLEAN, false);
+        return left.getType() == right.getType() ? DataImpl.TRUE
+                : DataImpl.FALSE;
     }
 
     @Override
@@ -2,6 +2,7 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
 
 public class If extends ExpressionImpl {
@@ -17,17 +18,17 @@ public class If extends ExpressionImpl {
     }
 
     @Override
-    public Data evaluate() {
+    public Data evaluate(EvaluationContext context) {
         Data data;
 
-        if(condition.evaluate().getType() == DataType.BOOLEAN && thenExpression.evaluate().getType() == elseExpression.evaluate().getType()) {
+        if(condition.evaluate(context).getType() == DataType.BOOLEAN && thenExpression.evaluate(context).getType() == elseExpression.evaluate(context).getType()) {
             DataType type = thenExpression.getType();
 
-            data = (boolean) condition.evaluate().getValue() ? new DataImpl(thenExpression.getType(), type.cast(thenExpression.evaluate().getValue()))
-                    : new DataImpl(elseExpression.getType(), type.cast(elseExpression.evaluate().getValue()));
+            data = condition.evaluate(context).getBoolean() ? DataImpl.of(thenExpression.getType(), type.cast(thenExpression.evaluate(context).getValue()))
+                    : DataImpl.of(elseExpression.getType(), type.cast(elseExpression.evaluate(context).getValue()));
         }
         else {
-            data = new DataImpl(DataType.UNKNOWN,DataType.UNKNOWN);
+            data = DataImpl.UNKNOWN_TYPE;
         }
 
         return data;
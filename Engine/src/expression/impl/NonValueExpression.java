@@ -1,6 +1,7 @@
 package expression.impl;
 
 import expression.api.Data;
+import expression.api.EvaluationContext;
 import expression.api.DataType;
 
 public class NonValueExpression extends ExpressionImpl{
@@ -10,8 +11,8 @@ public class NonValueExpression extends ExpressionImpl{
     }
 
     @Override
-    public Data evaluate() {
-        return new DataImpl(DataType.UNKNOWN,"");
+    public Data evaluate(EvaluationContext context) {
+        return DataImpl.EMPTY;
     }
 
     @Override
@@ -2,6 +2,7 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
 
 public class Not extends UnaryExpression {
@@ -12,9 +13,9 @@ public class Not extends UnaryExpression {
     }
 
     @Override
-    protected Data dynamicEvaluate(Data input) {
-        return input.getType() == DataType.BOOLEAN ? new DataImpl(DataType.BOOLEAN,!(boolean)input.getValue())
-                : new DataImpl(DataType.UNKNOWN,DataImpl.BoolUndefiled);
+    protected Data dynamicEvaluate(Data input, EvaluationContext context) {
+        return input.getType() == DataType.BOOLEAN ? DataImpl.ofBoolean(!input.getBoolean())
+                : DataImpl.UNKNOWN_BOOLEAN;
     }
 
     @Override
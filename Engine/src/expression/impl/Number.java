@@ -6,9 +6,12 @@ import java.util.Arrays;
 public class Number extends ExpressionImpl {
 
     private double value;
+    // A literal always evaluates to the same value, so it is built once.
+    private final Data data;
 
     public Number(double value) {
         this.value = value;
+        this.data = DataImpl.ofNumber(value);
         setDataType(DataType.NUMERIC);
     }
 
@@ -17,8 +20,8 @@ public class Number extends ExpressionImpl {
     }
 
     @Override
-    public Data evaluate() {
-        return new DataImpl(DataType.NUMERIC, value);
+    public Data evaluate(EvaluationContext context) {
+        return data;
     }
 
     @Override
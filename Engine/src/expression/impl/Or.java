@@ -13,8 +13,8 @@ public class Or extends BinaryExpression {
 
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
-        return left.getType() == DataType.BOOLEAN && right.getType() == DataType.BOOLEAN  ? new DataImpl(DataType.BOOLEAN,(Boolean)left.getValue() || (Boolean)right.getValue())
-                : new DataImpl(DataType.UNKNOWN,DataImpl.BoolUndefiled);
+        return left.getType() == DataType.BOOLEAN && right.getType() == DataType.BOOLEAN  ? DataImpl.ofBoolean(left.getBoolean() || right.getBoolean())
+                : DataImpl.UNKNOWN_BOOLEAN;
     }
 
     @Override
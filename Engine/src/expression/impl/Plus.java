@@ -14,8 +14,8 @@ public class Plus extends BinaryExpression {
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
         return left.getType() == DataType.NUMERIC && right.getType() == DataType.NUMERIC ?
-                new DataImpl(DataType.NUMERIC,(double)left.getValue() + (double)right.getValue())
-                : new DataImpl(DataType.UNKNOWN,Double.NaN);
+                DataImpl.ofNumber(left.getNumber() + right.getNumber())
+                : DataImpl.UNKNOWN_NUMBER;
     }
 
     @Override
@@ -16,8 +16,8 @@ public class Pow extends BinaryExpression {
     @Override
     protected Data dynamicEvaluate(Data left, Data right) {
         return left.getType() == DataType.NUMERIC && right.getType() == DataType.NUMERIC ?
-                new DataImpl(DataType.NUMERIC,Math.pow((double)left.getValue(),(double)right.getValue()))
-                : new DataImpl(DataType.UNKNOWN,Double.NaN);
+                DataImpl.ofNumber(Math.pow(left.getNumber(),right.getNumber()))
+                : DataImpl.UNKNOWN_NUMBER;
     }
 
     @Override
@@ -2,22 +2,24 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 
 import java.util.Arrays;
 
 public class RawString extends ExpressionImpl {
 
     private String value;
+    private final Data data;
 
     public RawString(String value) {
         this.value = value;
+        this.data = DataImpl.ofString(value);
         setDataType(DataType.STRING);
     }
 
     @Override
-    public Data evaluate() {
-
-        return new DataImpl(DataType.STRING, (String)this.value);
+    public Data evaluate(EvaluationContext context) {
+        return data;
     }
 
     @Override
@@ -2,8 +2,8 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
-import sheet.api.SheetGetters;
 import sheet.coordinate.api.Coordinate;
 import sheet.coordinate.impl.CoordinateFactory;
 
@@ -12,17 +12,20 @@ import java.util.Arrays;
 public class Ref extends ExpressionImpl {
 
     private Coordinate cellToReferTo;
-    public static SheetGetters sheetView;
 
     public Ref(Expression cellId) {
         setDataType(DataType.UNKNOWN);
         isValidArgs(cellId);
-        cellToReferTo = CoordinateFactory.toCoordinate(((String) cellId.evaluate().getValue()).toUpperCase());
+        cellToReferTo = CoordinateFactory.toCoordinate(((String) cellId.evaluate(EvaluationContext.NONE).getValue()).toUpperCase());
+    }
+
+    public Coordinate getCellToReferTo() {
+        return cellToReferTo;
     }
 
     @Override
-    public Data evaluate() {
-        return sheetView.getCell(cellToReferTo).getEffectiveValue();
+    public Data evaluate(EvaluationContext context) {
+        return context.getCell(cellToReferTo).getEffectiveValue();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package expression.impl;
 
+import expression.api.EvaluationContext;
 import expression.api.*;
 
 import java.util.Arrays;
@@ -17,11 +18,11 @@ public class Sub extends ExpressionImpl {
     }
 
     @Override
-    public Data evaluate() {
-        return source.evaluate().getType() == DataType.STRING && left.evaluate().getType() == DataType.NUMERIC && right.evaluate().getType() == DataType.NUMERIC ?
-                new DataImpl(DataType.STRING,((String)source.evaluate().getValue()).substring
-                        ((int)((double)left.evaluate().getValue()),(int)((double)right.evaluate().getValue())))
-                : new DataImpl(DataType.UNKNOWN,DataImpl.undefiled);
+    public Data evaluate(EvaluationContext context) {
+        return source.evaluate(context).getType() == DataType.STRING && left.evaluate(context).getType() == DataType.NUMERIC && right.evaluate(context).getType() == DataType.NUMERIC ?
+                DataImpl.ofString(((String)source.evaluate(context).getValue()).substring
+                        ((int)left.evaluate(context).getNumber(),(int)right.evaluate(context).getNumber()))
+                : DataImpl.UNKNOWN_STRING;
     }
 
     @Override
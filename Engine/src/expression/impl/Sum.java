@@ -2,42 +2,31 @@ package expression.impl;
 
 import expression.api.Data;
 import expression.api.DataType;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
-import sheet.api.SheetGetters;
-import sheet.cell.api.CellGetters;
-import sheet.range.api.Range;
-import sheet.range.api.RangeGetters;
-
-import java.util.Objects;
+import sheet.range.aggregate.api.RangeAggregate;
 
 public class Sum extends UnaryExpression {
 
-    public static SheetGetters sheetView;
-
     public Sum(Expression RangeName) {
         super(RangeName);
         setDataType(DataType.NUMERIC);
     }
 
     @Override
-    protected Data dynamicEvaluate(Data input) {
-        Data data = new DataImpl(DataType.UNKNOWN,Double.NaN);
+    protected Data dynamicEvaluate(Data input, EvaluationContext context) {
+        Data data = DataImpl.UNKNOWN_NUMBER;
 
         if(input.getType() == DataType.STRING) {
 
-            RangeGetters range = sheetView.getRange((String)input.getValue());
+            // The sheet keeps the sum of every range up to date, so reading it doesn't depend on the range size.
+            RangeAggregate aggregate = context.getRangeAggregate((String)input.getValue());
 
-            if(range != null) {
-                double sum = range.toCoordinateCollection().stream()
-                        .map(coordinate -> sheetView.getCell(coordinate))
-                        .filter(Objects::nonNull)
-                        .map(CellGetters::getEffectiveValue)
-                        .filter(dataInCell -> dataInCell.getType() == DataType.NUMERIC || dataInCell.equals(new DataImpl(DataType.UNKNOWN,Double.NaN)))
-                        .mapToDouble(dataInCell-> (double)dataInCell.getValue())
-                        .sum();
+            if(aggregate != null) {
+                double sum = aggregate.getSum();
 
                 if(!Double.isNaN(sum)) {
-                    data = new DataImpl(DataType.NUMERIC,sum);
+                    data = DataImpl.ofNumber(sum);
                 }
 
             }
@@ -1,6 +1,7 @@
 package expression.impl;
 
 import expression.api.Data;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
 
 public abstract class UnaryExpression extends ExpressionImpl{
@@ -17,9 +18,9 @@ public abstract class UnaryExpression extends ExpressionImpl{
     }
 
     @Override
-    public Data evaluate() {
-        return dynamicEvaluate(input.evaluate());
+    public Data evaluate(EvaluationContext context) {
+        return dynamicEvaluate(input.evaluate(context), context);
     }
 
-    protected abstract Data dynamicEvaluate(Data input);
+    protected abstract Data dynamicEvaluate(Data input, EvaluationContext context);
 }
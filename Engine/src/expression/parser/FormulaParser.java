@@ -0,0 +1,187 @@
+package expression.parser;
+
+import expression.api.DataType;
+import expression.api.EvaluationContext;
+import expression.api.Expression;
+import expression.impl.*;
+import expression.impl.Number;
+import operation.Operation;
+import sheet.coordinate.api.Coordinate;
+
+import java.util.*;
+
+public class FormulaParser {
+
+    private static final int CACHE_SIZE = 4096;
+
+    // Parse results depend only on the text, so one cache serves every sheet.
+    private static final Map<String, ParsedFormula> parsedFormulas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParsedFormula> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final String input;
+    private final int[] matchingBrace;
+    private final Set<Coordinate> cellReferences;
+    private final Set<String> rangeNames;
+
+    private FormulaParser(String input) {
+        this.input = input;
+        this.matchingBrace = matchBraces(input);
+        this.cellReferences = new HashSet<>();
+        this.rangeNames = new HashSet<>();
+    }
+
+    public static ParsedFormula parse(String formula) {
+        synchronized (parsedFormulas) {
+            ParsedFormula parsed = parsedFormulas.get(formula);
+
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+
+        FormulaParser parser = new FormulaParser(formula);
+        Expression expression = parser.parsePart(0, formula.length());
+        ParsedFormula parsed = new ParsedFormula(expression, parser.cellReferences, parser.rangeNames);
+
+        synchronized (parsedFormulas) {
+            parsedFormulas.put(formula, parsed);
+        }
+
+        return parsed;
+    }
+
+    // The only scan over the characters, afterward every nested function is skipped in one step.
+    private static int[] matchBraces(String input) {
+        int[] matchingBrace = new int[input.length()];
+        int[] openBraces = new int[input.length()];
+        int depth = 0;
+
+        Arrays.fill(matchingBrace, -1);
+
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+
+            if (c == '{') {
+                openBraces[depth++] = i;
+            } else if (c == '}' && depth > 0) {
+                int open = openBraces[--depth];
+                matchingBrace[open] = i;
+                matchingBrace[i] = open;
+            }
+        }
+
+        return matchingBrace;
+    }
+
+    private Expression parsePart(int start, int end) {
+
+        if (start == end) {
+            return new NonValueExpression();
+        }
+
+        if (end - start >= 2 && input.charAt(start) == '{' && input.charAt(end - 1) == '}') {
+
+            if (matchingBrace[start] != end - 1) {
+                throw invalidBraces(start, end);
+            }
+
+            return parseFunction(start + 1, end - 1);
+        }
+
+        return parsePrimitive(input.substring(start, end));
+    }
+
+    private Expression parseFunction(int start, int end) {
+        List<int[]> parts = new ArrayList<>();
+        int partStart = start;
+        int position = start;
+
+        // Splits the function content on its own commas, nested functions are jumped over.
+        while (position < end) {
+            char c = input.charAt(position);
+
+            if (c == '{') {
+                int close = matchingBrace[position];
+
+                if (close < 0 || close >= end) {
+                    throw invalidBraces(start - 1, end + 1);
+                }
+
+                position = close + 1;
+                continue;
+            }
+
+            if (c == '}') {
+                throw invalidBraces(start - 1, end + 1);
+            }
+
+            if (c == ',') {
+                parts.add(new int[] {partStart, position});
+                partStart = position + 1;
+            }
+
+            position++;
+        }
+
+        if (partStart < end) {
+            parts.add(new int[] {partStart, end});
+        }
+
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Invalid operation: " + "\n"
+                    + "Supported operations: " + Arrays.toString(Operation.values()));
+        }
+
+        String functionName = input.substring(parts.getFirst()[0], parts.getFirst()[1]).trim().toUpperCase();
+        Operation operation;
+
+        try {
+            operation = Operation.valueOf(functionName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid operation: " + functionName + "\n"
+                    + "Supported operations: " + Arrays.toString(Operation.values()));
+        }
+
+        int referencesBefore = cellReferences.size();
+        Expression[] arguments = new Expression[parts.size() - 1];
+
+        for (int i = 1; i < parts.size(); i++) {
+            arguments[i - 1] = parsePart(parts.get(i)[0], parts.get(i)[1]);
+        }
+
+        Expression expression = operation.create((Object[]) arguments);
+
+        if (expression instanceof Ref ref) {
+            cellReferences.add(ref.getCellToReferTo());
+        } else if ((expression instanceof Sum || expression instanceof Average)
+                && arguments[0].getType() == DataType.STRING && cellReferences.size() == referencesBefore) {
+            // The range name is known while parsing only when the argument doesn't read any cell.
+            rangeNames.add(((String) arguments[0].evaluate(EvaluationContext.NONE).getValue()).toUpperCase());
+        }
+
+        return expression;
+    }
+
+    private static Expression parsePrimitive(String value) {
+        if (isBoolean(value)) {
+            return new BooleanExpression(Boolean.parseBoolean(value));
+        } else if (NumericValueUtils.isNumeric(value)) {
+            return new Number(Double.parseDouble(value));
+        } else {
+            return new RawString(value);
+        }
+    }
+
+    private static boolean isBoolean(String value) {
+        return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+    }
+
+    private IllegalArgumentException invalidBraces(int start, int end) {
+        return new IllegalArgumentException("Invalid expression: " + input.substring(start, end) + "\n"
+                + "every '{' must be closed by a matching '}'");
+    }
+}
@@ -0,0 +1,130 @@
+package expression.parser;
+
+// Tells whether Double.parseDouble accepts a string without throwing, so hot paths don't use exceptions as a test.
+public class NumericValueUtils {
+
+    private NumericValueUtils() {}
+
+    public static boolean isNumeric(String value) {
+        int start = 0;
+        int end = value.length();
+
+        // parseDouble trims the same characters String.trim does.
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (start < end && (value.charAt(start) == '+' || value.charAt(start) == '-')) {
+            start++;
+        }
+
+        if (start == end) {
+            return false;
+        }
+
+        char first = value.charAt(start);
+
+        if (first == 'N') {
+            return value.startsWith("NaN", start) && start + 3 == end;
+        }
+
+        if (first == 'I') {
+            return value.startsWith("Infinity", start) && start + 8 == end;
+        }
+
+        if (first == '0' && start + 1 < end && (value.charAt(start + 1) == 'x' || value.charAt(start + 1) == 'X')) {
+            return isHexNumeric(value, start + 2, end);
+        }
+
+        return isDecimalNumeric(value, start, end);
+    }
+
+    private static boolean isDecimalNumeric(String value, int position, int end) {
+        int digits = 0;
+
+        while (position < end && isDigit(value.charAt(position))) {
+            position++;
+            digits++;
+        }
+
+        if (position < end && value.charAt(position) == '.') {
+            position++;
+            while (position < end && isDigit(value.charAt(position))) {
+                position++;
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        if (position < end && (value.charAt(position) == 'e' || value.charAt(position) == 'E')) {
+            position = skipSignedDigits(value, position + 1, end);
+            if (position < 0) {
+                return false;
+            }
+        }
+
+        return isEndWithOptionalSuffix(value, position, end);
+    }
+
+    private static boolean isHexNumeric(String value, int position, int end) {
+        int digits = 0;
+
+        while (position < end && Character.digit(value.charAt(position), 16) >= 0) {
+            position++;
+            digits++;
+        }
+
+        if (position < end && value.charAt(position) == '.') {
+            position++;
+            while (position < end && Character.digit(value.charAt(position), 16) >= 0) {
+                position++;
+                digits++;
+            }
+        }
+
+        // A hexadecimal number must have digits and a binary exponent.
+        if (digits == 0 || position == end || (value.charAt(position) != 'p' && value.charAt(position) != 'P')) {
+            return false;
+        }
+
+        position = skipSignedDigits(value, position + 1, end);
+
+        return position >= 0 && isEndWithOptionalSuffix(value, position, end);
+    }
+
+    // Returns the position after an optionally signed run of digits, or -1 when there are no digits.
+    private static int skipSignedDigits(String value, int position, int end) {
+
+        if (position < end && (value.charAt(position) == '+' || value.charAt(position) == '-')) {
+            position++;
+        }
+
+        int digitsStart = position;
+
+        while (position < end && isDigit(value.charAt(position))) {
+            position++;
+        }
+
+        return position == digitsStart ? -1 : position;
+    }
+
+    private static boolean isEndWithOptionalSuffix(String value, int position, int end) {
+
+        if (position < end && "fFdD".indexOf(value.charAt(position)) >= 0) {
+            position++;
+        }
+
+        return position == end;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+}
@@ -0,0 +1,15 @@
+package expression.parser;
+
+import expression.api.Expression;
+import sheet.coordinate.api.Coordinate;
+
+import java.util.Set;
+
+// A parsed original value together with the cells and range names it reads.
+public record ParsedFormula(Expression expression, Set<Coordinate> cellReferences, Set<String> rangeNames) {
+
+    public ParsedFormula {
+        cellReferences = Set.copyOf(cellReferences);
+        rangeNames = Set.copyOf(rangeNames);
+    }
+}
@@ -3,150 +3,148 @@ package operation;
 import expression.api.Expression;
 import expression.impl.*;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.function.Function;
 
 public enum Operation {
 
     PLUS(BinaryExpression.numberOfArgs) {
         @Override
-        public Expression create(Object... args)
-        {
-            return (Expression) createInstance(Plus.class, getNumberOfArguments(),args);
+        public Expression create(Object... args) {
+            return createInstance(this, args, arguments -> new Plus(arguments[0], arguments[1]));
         }
     },
 
     MINUS(BinaryExpression.numberOfArgs) {
         @Override
-        public Expression create(Object... args)
-        {
-            return (Expression) createInstance(Minus.class, getNumberOfArguments(),args);
+        public Expression create(Object... args) {
+            return createInstance(this, args, arguments -> new Minus(arguments[0], arguments[1]));
         }
     },
 
     TIMES(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return  (Expression) createInstance(Times.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Times(arguments[0], arguments[1]));
         }
     },
 
     DIVIDE(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Divide.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Divide(arguments[0], arguments[1]));
         }
     },
 
     CONCAT(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Concat.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Concat(arguments[0], arguments[1]));
         }
     },
 
     POW(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Pow.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Pow(arguments[0], arguments[1]));
         }
     },
 
-    MOD(BinaryExpression.numberOfArgs){
+    MOD(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Mod.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Mod(arguments[0], arguments[1]));
         }
     },
 
     SUB(3) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Sub.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Sub(arguments[0], arguments[1], arguments[2]));
         }
     },
 
     ABS(UnaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Abs.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Abs(arguments[0]));
         }
     },
 
     REF(UnaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Ref.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Ref(arguments[0]));
         }
     },
 
     EQUAL(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Equal.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Equal(arguments[0], arguments[1]));
         }
     },
 
     NOT(UnaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Not.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Not(arguments[0]));
         }
     },
 
     OR(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Or.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Or(arguments[0], arguments[1]));
         }
     },
 
     AND(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(And.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new And(arguments[0], arguments[1]));
         }
     },
 
     BIGGER(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Bigger.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Bigger(arguments[0], arguments[1]));
         }
     },
 
     LESS(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Less.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Less(arguments[0], arguments[1]));
         }
     },
 
     IF(3) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(If.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new If(arguments[0], arguments[1], arguments[2]));
         }
     },
 
     PERCENT(BinaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Percent.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Percent(arguments[0], arguments[1]));
         }
     },
 
     SUM(UnaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Sum.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Sum(arguments[0]));
         }
     },
 
     AVERAGE(UnaryExpression.numberOfArgs) {
         @Override
         public Expression create(Object... args) {
-            return (Expression) createInstance(Average.class, getNumberOfArguments(),args);
+            return createInstance(this, args, arguments -> new Average(arguments[0]));
         }
     };
 
@@ -156,33 +154,22 @@ public enum Operation {
         this.numberOfArguments = args;
     }
 
-    private static Object createInstance(Class<?> clazz, int numberOfArgs, Object... args) {
-
-        return Arrays.stream(clazz.getDeclaredConstructors())
-                .filter(constructor -> constructor.getParameterCount() == numberOfArgs)
-                .findFirst()
-                .map(constructor -> {
-                    try {
-                        constructor.setAccessible(true);
-                        return constructor.newInstance(args);
-                    } catch (InstantiationException | IllegalAccessException e) {
-                        throw new RuntimeException(e.getMessage());
-                    } catch (InvocationTargetException e) {
-                        throw new RuntimeException("input function: " + clazz.getSimpleName().toUpperCase() +"\n" +
-                                "input argument: " + Arrays.toString(args) + "\n" + "" +
-                                "number of input arguments: " + args.length + "\n" +
-                                "expected argument for this function: " + numberOfArgs + "\n" +
-                                "Error:\n" + e.getTargetException().getMessage());
-                    }catch(Exception e){
-                        throw new RuntimeException("input function: " + clazz.getSimpleName().toUpperCase() +"\n" +
-                                "input argument: " + Arrays.toString(args) + "\n" + "" +
-                                "number of input arguments: " + args.length + "\n" +
-                                "expected argument for this function: " + numberOfArgs + "\n" +
-                                "Error:\n" + e.getMessage());
-                    }
-                })
-                .get();
+    // Each operation passes its constructor directly, so creating a node doesn't look anything up.
+    private static Expression createInstance(Operation operation, Object[] args, Function<Expression[], Expression> constructor) {
 
+        try {
+            if (args.length != operation.getNumberOfArguments()) {
+                throw new IllegalArgumentException("wrong number of arguments: " + args.length + " expected: " + operation.getNumberOfArguments());
+            }
+
+            return constructor.apply(Arrays.copyOf(args, args.length, Expression[].class));
+        } catch (Exception e) {
+            throw new RuntimeException("input function: " + operation.name() + "\n" +
+                    "input argument: " + Arrays.toString(args) + "\n" +
+                    "number of input arguments: " + args.length + "\n" +
+                    "expected argument for this function: " + operation.getNumberOfArguments() + "\n" +
+                    "Error:\n" + e.getMessage());
+        }
     }
 
     public int getNumberOfArguments() {
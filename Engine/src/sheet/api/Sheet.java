@@ -1,3 +1,13 @@
 package sheet.api;
 
-public interface Sheet extends SheetGetters, SheetSetters { }
+import sheet.cell.api.Cell;
+import sheet.coordinate.api.Coordinate;
+
+import java.util.Map;
+
+public interface Sheet extends SheetGetters, SheetSetters {
+    Cell getCell(Coordinate coordinate);
+    Map<Coordinate, Cell> getActiveCells();
+
+    Sheet copy();
+}
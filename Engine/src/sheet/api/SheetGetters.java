@@ -1,35 +1,39 @@
 package sheet.api;
 
-import sheet.cell.api.Cell;
+import expression.api.EvaluationContext;
 import sheet.cell.api.CellGetters;
+import sheet.column.statistics.api.ColumnStatistics;
 import sheet.coordinate.api.Coordinate;
 import sheet.layout.api.LayoutGetters;
 import sheet.range.api.RangeGetters;
 import sheet.range.boundaries.api.Boundaries;
+import sheet.recalculation.api.RecalculationCounters;
+import sheet.recalculation.api.RecalculationMode;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public interface SheetGetters {
+public interface SheetGetters extends EvaluationContext {
     String getName();
     LayoutGetters getLayout();
     int getVersion();
+    RecalculationCounters getRecalculationCounters();
+    RecalculationMode getRecalculationMode();
 
-    Cell getCell(Coordinate coordinate);
-    Map<Coordinate, Cell> getActiveCells();
+    CellGetters getCell(Coordinate coordinate);
+    Map<Coordinate, ? extends CellGetters> getActiveCells();
 
     RangeGetters getRange(String rangeName);
     Set<RangeGetters> getRanges();
     List<List<CellGetters>> getCellInRange(int startRow, int endRow, int startCol, int endCol);
     List<String> getColumnUniqueValuesInRange(int column, int startRow, int endRow);
+    ColumnStatistics getColumnStatistics(int column, int startRow, int endRow);
 
     boolean isCoordinateInBoundaries(Coordinate target);
     boolean isRangeInBoundaries(Boundaries boundaries);
     boolean isColumnNumericInRange(int column, int startRow, int endRow);
 
-    Sheet copy();
-
     Collection<Coordinate> rangeUses(RangeGetters range);
 }
@@ -3,6 +3,7 @@ package sheet.api;
 import sheet.coordinate.api.Coordinate;
 import sheet.range.api.RangeGetters;
 import sheet.range.boundaries.api.Boundaries;
+import sheet.recalculation.api.RecalculationMode;
 
 import java.util.Map;
 
@@ -10,6 +11,7 @@ public interface SheetSetters {
     void setCell(Coordinate coordinate, String value);
     void setCells(Map<Coordinate, String> originalValues);
     void setVersion(int version);
+    void setRecalculationMode(RecalculationMode recalculationMode);
 
     boolean addRange(String name, Boundaries boundaries);
     boolean deleteRange(RangeGetters range);
@@ -1,3 +1,5 @@
 package sheet.cell.api;
 
-public interface Cell extends CellGetters, CellSetters { }
\ No newline at end of file
+public interface Cell extends CellGetters, CellSetters {
+    Cell copy();
+}
@@ -8,9 +8,11 @@ import java.util.Set;
 public interface CellGetters {
     Coordinate getCoordinate();
     int getVersion();
+    int getLevel();
     String getUpdaterUserName();
     String getOriginalValue();
     Data getEffectiveValue();
-    Set<Cell> getInfluenceFrom();
-    Set<Cell> getInfluenceOn();
+    Set<Coordinate> getInfluenceFrom();
+    Set<String> getInfluenceFromRanges();
+    Set<Coordinate> getInfluenceOn();
 }
@@ -1,14 +1,20 @@
 package sheet.cell.api;
 
+import expression.api.EvaluationContext;
+import sheet.coordinate.api.Coordinate;
+
 import java.util.Set;
 
 public interface CellSetters {
-    void computeEffectiveValue();
+    void computeEffectiveValue(EvaluationContext context);
     void setOriginalValue(String originalValue);
-    void setInfluenceOn(Set<Cell> influenceOn);
-    void setInfluenceFrom(Set<Cell> influenceFrom);
+    void setInfluenceOn(Set<Coordinate> influenceOn);
+    void setInfluenceFrom(Set<Coordinate> influenceFrom);
     void setVersion(int changeInVersion);
+    void setLevel(int level);
     void setUpdateBy(String userName);
-    void addInfluenceOn(Cell influenceOn);
-    void addInfluenceFrom(Cell influenceFrom);
+    void addInfluenceOn(Coordinate influenceOn);
+    void addInfluenceFrom(Coordinate influenceFrom);
+    void removeInfluenceOn(Coordinate influenceOn);
+    void removeInfluenceFrom(Coordinate influenceFrom);
 }
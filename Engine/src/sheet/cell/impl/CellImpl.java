@@ -1,12 +1,16 @@
 package sheet.cell.impl;
 
 import expression.api.Data;
+import expression.api.EvaluationContext;
 import expression.api.Expression;
+import expression.compiler.CompiledExpression;
+import expression.compiler.FormulaCompiler;
 import expression.parser.OrignalValueUtilis;
 import sheet.cell.api.Cell;
 import sheet.coordinate.api.Coordinate;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -14,12 +18,17 @@ public class CellImpl implements Cell, Serializable {
 
     private final Coordinate coordinate;
     private int version;
+    // Length of the longest dependency chain that ends in this cell, cells without references are level 0.
+    private int level;
     private String updateBy;
     private String originalValue;
     private Expression expression;
+    private transient CompiledExpression compiledExpression;
     private Data effectiveValue;
-    private Set<Cell> influenceFrom;
-    private Set<Cell> influenceOn;
+    private Set<Coordinate> influenceFrom;
+    // Names of the ranges the formula reads, the sheet keeps their dependents instead of an edge per range cell.
+    private Set<String> influenceFromRanges;
+    private Set<Coordinate> influenceOn;
 
 
     private CellImpl(Coordinate coordinate, int version, String originalValue) {
@@ -35,6 +44,20 @@ public class CellImpl implements Cell, Serializable {
         this.influenceOn = new HashSet<>();
     }
 
+    private CellImpl(CellImpl other) {
+        this.coordinate = other.coordinate;
+        this.version = other.version;
+        this.level = other.level;
+        this.updateBy = other.updateBy;
+        this.originalValue = other.originalValue;
+        this.expression = other.expression;
+        this.compiledExpression = other.compiledExpression;
+        this.effectiveValue = other.effectiveValue;
+        this.influenceFrom = new HashSet<>(other.influenceFrom);
+        this.influenceFromRanges = other.influenceFromRanges;
+        this.influenceOn = new HashSet<>(other.influenceOn);
+    }
+
     public static CellImpl create(Coordinate coordinate, int version, String originalValue) {
         return new CellImpl(coordinate, version, originalValue);
     }
@@ -49,6 +72,11 @@ public class CellImpl implements Cell, Serializable {
         return this.version;
     }
 
+    @Override
+    public int getLevel() {
+        return this.level;
+    }
+
     @Override
     public String getUpdaterUserName() {
         return this.updateBy;
@@ -65,50 +93,78 @@ public class CellImpl implements Cell, Serializable {
     }
 
     @Override
-    public Set<Cell> getInfluenceFrom() {
-        return this.influenceFrom;
+    public Set<Coordinate> getInfluenceFrom() {
+        return Collections.unmodifiableSet(this.influenceFrom);
+    }
+
+    @Override
+    public Set<String> getInfluenceFromRanges() {
+        return this.influenceFromRanges;
+    }
+
+    @Override
+    public Set<Coordinate> getInfluenceOn() {
+        return Collections.unmodifiableSet(this.influenceOn);
     }
 
     @Override
-    public Set<Cell> getInfluenceOn() {
-        return this.influenceOn;
+    public Cell copy() {
+        return new CellImpl(this);
     }
 
     @Override
-    public void setInfluenceOn(Set<Cell> influenceOn) {
-        this.influenceOn = influenceOn;
+    public void setInfluenceOn(Set<Coordinate> influenceOn) {
+        this.influenceOn = new HashSet<>(influenceOn);
     }
 
     @Override
-    public void setInfluenceFrom(Set<Cell> influenceFrom) {
-        this.influenceFrom = influenceFrom;
+    public void setInfluenceFrom(Set<Coordinate> influenceFrom) {
+        this.influenceFrom = new HashSet<>(influenceFrom);
     }
 
     @Override
-    public void addInfluenceOn(Cell effectOn) {
+    public void addInfluenceOn(Coordinate effectOn) {
         influenceOn.add(effectOn);
     }
 
     @Override
-    public void addInfluenceFrom(Cell AffectedFrom) { influenceFrom.add(AffectedFrom); }
+    public void addInfluenceFrom(Coordinate AffectedFrom) { influenceFrom.add(AffectedFrom); }
+
+    @Override
+    public void removeInfluenceOn(Coordinate effectOn) {
+        influenceOn.remove(effectOn);
+    }
+
+    @Override
+    public void removeInfluenceFrom(Coordinate AffectedFrom) { influenceFrom.remove(AffectedFrom); }
 
     @Override
     public void setOriginalValue(String originalValue) {
        expression = OrignalValueUtilis.toExpression(originalValue);
+       influenceFromRanges = OrignalValueUtilis.findRangeNames(originalValue);
+       compiledExpression = null;
        this.originalValue = originalValue;
     }
 
     @Override
     public void setVersion(int changeInVersion) { version = changeInVersion; }
 
+    @Override
+    public void setLevel(int level) { this.level = level; }
+
     @Override
     public void setUpdateBy(String userName) {
         this.updateBy = userName;
     }
 
     @Override
-    public void computeEffectiveValue() {
-        setEffectiveValue(expression.evaluate());
+    public void computeEffectiveValue(EvaluationContext context) {
+        // Compiled on first use, cells with the same formula share the compiled form.
+        if (compiledExpression == null) {
+            compiledExpression = FormulaCompiler.compile(originalValue, expression);
+        }
+
+        setEffectiveValue(compiledExpression.evaluate(context));
     }
 
     private void setEffectiveValue(Data effectiveValue) {
@@ -0,0 +1,21 @@
+package sheet.cell.store.api;
+
+import sheet.cell.api.Cell;
+import sheet.coordinate.api.Coordinate;
+
+import java.util.Map;
+
+public interface CellStore {
+    Cell get(Coordinate coordinate);
+    Cell put(Coordinate coordinate, Cell cell);
+    Cell remove(Coordinate coordinate);
+
+    // Returns a cell that is private to this store, copying it first if it is shared with another version.
+    Cell edit(Coordinate coordinate);
+
+    int size();
+    Map<Coordinate, Cell> asMap();
+
+    // Returns a store that shares all current cells with this one, both sides copy on their next write.
+    CellStore fork();
+}
@@ -0,0 +1,259 @@
+package sheet.cell.store.impl;
+
+import sheet.cell.api.Cell;
+import sheet.cell.store.api.CellStore;
+import sheet.coordinate.api.Coordinate;
+
+import java.io.Serializable;
+import java.util.*;
+
+public class CellStoreImpl implements CellStore, Serializable {
+
+    // The grid is split into fixed chunks of cells, a new version copies only the chunk array
+    // and then copies each chunk (and each cell) the first time it writes to it.
+    private static final int CHUNK_BITS = 4;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int rows;
+    private final int columns;
+    private final Chunk[] chunks;
+    private int size;
+
+    // Token of the chunks this store is allowed to write in place, null while it owns nothing.
+    private transient Object owner;
+
+    private CellStoreImpl(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.chunks = new Chunk[(rows * columns + CHUNK_MASK) >>> CHUNK_BITS];
+        this.size = 0;
+    }
+
+    private CellStoreImpl(CellStoreImpl other) {
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.chunks = other.chunks.clone();
+        this.size = other.size;
+    }
+
+    public static CellStoreImpl create(int rows, int columns) {
+        return new CellStoreImpl(rows, columns);
+    }
+
+    @Override
+    public Cell get(Coordinate coordinate) {
+        int index = indexOf(coordinate);
+
+        if (index < 0) {
+            return null;
+        }
+
+        Chunk chunk = this.chunks[index >>> CHUNK_BITS];
+
+        return chunk == null ? null : chunk.cells[index & CHUNK_MASK];
+    }
+
+    @Override
+    public Cell put(Coordinate coordinate, Cell cell) {
+        int index = checkedIndexOf(coordinate);
+
+        Chunk chunk = writableChunk(index >>> CHUNK_BITS);
+        int offset = index & CHUNK_MASK;
+
+        Cell previous = chunk.cells[offset];
+        chunk.cells[offset] = cell;
+        chunk.owned[offset] = cell != null;
+
+        if (previous == null && cell != null) {
+            this.size++;
+        } else if (previous != null && cell == null) {
+            this.size--;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public Cell remove(Coordinate coordinate) {
+        return get(coordinate) == null ? null : put(coordinate, null);
+    }
+
+    @Override
+    public Cell edit(Coordinate coordinate) {
+
+        if (get(coordinate) == null) {
+            return null;
+        }
+
+        int index = indexOf(coordinate);
+        Chunk chunk = writableChunk(index >>> CHUNK_BITS);
+        int offset = index & CHUNK_MASK;
+
+        if (!chunk.owned[offset]) {
+            chunk.cells[offset] = chunk.cells[offset].copy();
+            chunk.owned[offset] = true;
+        }
+
+        return chunk.cells[offset];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Map<Coordinate, Cell> asMap() {
+        return new CellStoreMap();
+    }
+
+    @Override
+    public CellStore fork() {
+        // From now on neither side owns the shared chunks.
+        this.owner = null;
+        return new CellStoreImpl(this);
+    }
+
+    private Chunk writableChunk(int chunkIndex) {
+
+        if (this.owner == null) {
+            this.owner = new Object();
+        }
+
+        Chunk chunk = this.chunks[chunkIndex];
+
+        if (chunk == null) {
+            chunk = new Chunk(this.owner);
+            this.chunks[chunkIndex] = chunk;
+        } else if (chunk.owner != this.owner) {
+            chunk = chunk.copy(this.owner);
+            this.chunks[chunkIndex] = chunk;
+        }
+
+        return chunk;
+    }
+
+    private int indexOf(Coordinate coordinate) {
+        int row = coordinate.getRow();
+        int column = coordinate.getCol();
+
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            return -1;
+        }
+
+        return row * this.columns + column;
+    }
+
+    private int checkedIndexOf(Coordinate coordinate) {
+        int index = indexOf(coordinate);
+
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("coordinate " + coordinate + " is not in sheet boundaries.");
+        }
+
+        return index;
+    }
+
+    private static class Chunk implements Serializable {
+
+        private transient Object owner;
+        private final Cell[] cells;
+        private final boolean[] owned;
+
+        private Chunk(Object owner) {
+            this.owner = owner;
+            this.cells = new Cell[CHUNK_SIZE];
+            this.owned = new boolean[CHUNK_SIZE];
+        }
+
+        private Chunk(Object owner, Cell[] cells) {
+            this.owner = owner;
+            this.cells = cells;
+            this.owned = new boolean[CHUNK_SIZE];
+        }
+
+        private Chunk copy(Object newOwner) {
+            // The cells themselves are still shared, each one is copied on its first edit.
+            return new Chunk(newOwner, this.cells.clone());
+        }
+    }
+
+    private class CellStoreMap extends AbstractMap<Coordinate, Cell> {
+
+        @Override
+        public Cell get(Object key) {
+            return key instanceof Coordinate coordinate ? CellStoreImpl.this.get(coordinate) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return CellStoreImpl.this.size;
+        }
+
+        @Override
+        public Set<Entry<Coordinate, Cell>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Coordinate, Cell>> iterator() {
+                    return new CellIterator();
+                }
+
+                @Override
+                public int size() {
+                    return CellStoreImpl.this.size;
+                }
+            };
+        }
+    }
+
+    private class CellIterator implements Iterator<Map.Entry<Coordinate, Cell>> {
+
+        private int nextIndex = -1;
+
+        private CellIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < rows * columns;
+        }
+
+        @Override
+        public Map.Entry<Coordinate, Cell> next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Cell cell = chunks[this.nextIndex >>> CHUNK_BITS].cells[this.nextIndex & CHUNK_MASK];
+            advance();
+
+            return Map.entry(cell.getCoordinate(), cell);
+        }
+
+        private void advance() {
+            int limit = rows * columns;
+            this.nextIndex++;
+
+            while (this.nextIndex < limit) {
+                Chunk chunk = chunks[this.nextIndex >>> CHUNK_BITS];
+
+                if (chunk == null) {
+                    // Skip a whole empty chunk.
+                    this.nextIndex = (this.nextIndex | CHUNK_MASK) + 1;
+                } else if (chunk.cells[this.nextIndex & CHUNK_MASK] == null) {
+                    this.nextIndex++;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
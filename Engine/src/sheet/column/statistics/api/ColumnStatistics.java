@@ -0,0 +1,12 @@
+package sheet.column.statistics.api;
+
+import java.util.List;
+
+public interface ColumnStatistics {
+    List<String> getDistinctValues();
+    int getCount(String value);
+    int getEmptyCount();
+    boolean isNumeric();
+    double getMin();
+    double getMax();
+}
@@ -0,0 +1,93 @@
+package sheet.column.statistics.impl;
+
+import expression.api.Data;
+import sheet.cell.api.CellGetters;
+import sheet.column.statistics.api.ColumnStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// What the sort and filter dialogs need to know about the rows of one column, gathered in a single pass.
+// Values are compared as they are displayed, rows without a cell are counted apart and are not numeric.
+public class ColumnStatisticsImpl implements ColumnStatistics {
+
+    // Displayed value to the number of rows showing it, in the order the values first appear.
+    private final Map<String, Integer> counts;
+    private final List<String> distinctValues;
+    private final int emptyCount;
+    private final boolean numeric;
+    private final double min;
+    private final double max;
+
+    private ColumnStatisticsImpl(IntFunction<? extends CellGetters> cellAtRow, int startRow, int endRow) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int emptyCount = 0;
+        boolean numeric = true;
+        double min = Double.NaN;
+        double max = Double.NaN;
+
+        for (int row = startRow; row <= endRow; row++) {
+            CellGetters cell = cellAtRow.apply(row);
+
+            if (cell == null) {
+                emptyCount++;
+                numeric = false;
+                continue;
+            }
+
+            Data value = cell.getEffectiveValue();
+            counts.merge(value.toString(), 1, Integer::sum);
+
+            if (value.isDisplayNumeric()) {
+                double number = value.getDisplayNumber();
+                min = Double.isNaN(min) ? number : Math.min(min, number);
+                max = Double.isNaN(max) ? number : Math.max(max, number);
+            } else {
+                numeric = false;
+            }
+        }
+
+        this.counts = counts;
+        this.distinctValues = List.copyOf(counts.keySet());
+        this.emptyCount = emptyCount;
+        this.numeric = numeric;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static ColumnStatisticsImpl create(IntFunction<? extends CellGetters> cellAtRow, int startRow, int endRow) {
+        return new ColumnStatisticsImpl(cellAtRow, startRow, endRow);
+    }
+
+    @Override
+    public List<String> getDistinctValues() {
+        return this.distinctValues;
+    }
+
+    @Override
+    public int getCount(String value) {
+        return this.counts.getOrDefault(value, 0);
+    }
+
+    @Override
+    public int getEmptyCount() {
+        return this.emptyCount;
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return this.numeric;
+    }
+
+    @Override
+    public double getMin() {
+        return this.min;
+    }
+
+    @Override
+    public double getMax() {
+        return this.max;
+    }
+}
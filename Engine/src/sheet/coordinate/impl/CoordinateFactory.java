@@ -2,23 +2,18 @@ package sheet.coordinate.impl;
 
 import sheet.coordinate.api.Coordinate;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CoordinateFactory {
 
-    private static final Map<String, Coordinate> coordinateMap = new HashMap<String, Coordinate>();
+    // Cells of the same level are evaluated in parallel, and evaluating a REF creates coordinates.
+    private static final Map<String, Coordinate> coordinateMap = new ConcurrentHashMap<String, Coordinate>();
 
     public static Coordinate createCoordinate(int row, int col) {
         String key = row + "," + col;
 
-        Coordinate coordinate = coordinateMap.get(key);
-
-        if (coordinate == null) {
-            coordinate = CoordinateImpl.create(row, col);
-            coordinateMap.put(key, coordinate);
-        }
-        return coordinate;
+        return coordinateMap.computeIfAbsent(key, k -> CoordinateImpl.create(row, col));
     }
 
     public static Coordinate toCoordinate(String coordinateName) {
@@ -1,35 +1,58 @@
 package sheet.impl;
 
-import expression.impl.Average;
+import expression.api.Data;
 import expression.impl.DataImpl;
-import expression.impl.Ref;
-import expression.impl.Sum;
 import expression.parser.OrignalValueUtilis;
 import sheet.api.Sheet;
 import sheet.cell.api.Cell;
 import sheet.cell.api.CellGetters;
 import sheet.cell.impl.CellImpl;
+import sheet.cell.store.api.CellStore;
+import sheet.cell.store.impl.CellStoreImpl;
+import sheet.column.statistics.api.ColumnStatistics;
+import sheet.column.statistics.impl.ColumnStatisticsImpl;
 import sheet.coordinate.api.Coordinate;
 import sheet.coordinate.impl.CoordinateFactory;
 import sheet.layout.api.Layout;
 import sheet.layout.api.LayoutGetters;
+import sheet.range.aggregate.api.RangeAggregate;
+import sheet.range.aggregate.impl.RangeAggregateImpl;
 import sheet.range.api.Range;
 import sheet.range.api.RangeGetters;
 import sheet.range.boundaries.api.Boundaries;
 import sheet.range.impl.RangeImpl;
+import sheet.range.index.api.RangeIndex;
+import sheet.range.index.impl.RangeIndexImpl;
+import sheet.recalculation.api.RecalculationCounters;
+import sheet.recalculation.api.RecalculationMode;
+import sheet.recalculation.impl.LevelRecalculationTask;
+import sheet.recalculation.impl.RecalculationCountersImpl;
 
 import java.io.*;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class SheetImpl implements Sheet, Serializable {
 
+    // Smaller levels are computed on the calling thread, splitting them costs more than it saves.
+    private final static int PARALLEL_LEVEL_THRESHOLD = 64;
+
     private final String name;
     private final Layout layout;
     private int version;
-    private final Map<Coordinate, Cell> activeCells;
-    private final Set<Range> ranges;
+    private CellStore activeCells;
+    // Keyed by the upper case name, the way formulas refer to them.
+    private final Map<String, Range> ranges;
+    private RangeIndex rangeIndex;
+    private final Map<String, RangeAggregateImpl> rangeAggregates;
+    // Highest level of a cell inside each range, missing until it is needed after a change could have lowered it.
+    private final Map<String, Integer> rangeLevels;
+    private final RecalculationCountersImpl recalculationCounters;
+    private RecalculationMode recalculationMode;
+    // Built on the first dialog that asks for them, a published version is read by many requests and never changes.
+    private transient Map<ColumnSpan, ColumnStatistics> columnStatistics;
 
     private SheetImpl(String name, Layout layout) {
 
@@ -44,8 +67,29 @@ public class SheetImpl implements Sheet, Serializable {
         this.name = name;
         this.layout = layout;
         this.version = 1;
-        this.activeCells = new HashMap<>();
-        this.ranges = new HashSet<>();
+        this.activeCells = CellStoreImpl.create(layout.getRows(), layout.getColumns());
+        this.ranges = new HashMap<>();
+        this.rangeIndex = RangeIndexImpl.create();
+        this.rangeAggregates = new HashMap<>();
+        this.rangeLevels = new HashMap<>();
+        this.recalculationCounters = RecalculationCountersImpl.create();
+        this.columnStatistics = new ConcurrentHashMap<>();
+        this.recalculationMode = RecalculationMode.SEQUENTIAL;
+    }
+
+    private SheetImpl(SheetImpl other) {
+        this.name = other.name;
+        this.layout = other.layout;
+        this.version = other.version;
+        this.activeCells = other.activeCells.fork();
+        this.ranges = new HashMap<>(other.ranges);
+        this.rangeIndex = other.rangeIndex.fork();
+        this.rangeAggregates = new HashMap<>();
+        this.rangeLevels = new HashMap<>(other.rangeLevels);
+        other.rangeAggregates.forEach((rangeName, aggregate) -> this.rangeAggregates.put(rangeName, aggregate.copy(this)));
+        this.recalculationCounters = RecalculationCountersImpl.create();
+        this.columnStatistics = new ConcurrentHashMap<>();
+        this.recalculationMode = other.recalculationMode;
     }
 
     public static SheetImpl create(String name, Layout layout) {
@@ -71,6 +115,16 @@ public class SheetImpl implements Sheet, Serializable {
         return this.version;
     }
 
+    @Override
+    public RecalculationCounters getRecalculationCounters() {
+        return this.recalculationCounters;
+    }
+
+    @Override
+    public RecalculationMode getRecalculationMode() {
+        return this.recalculationMode;
+    }
+
     @Override
     public Cell getCell(Coordinate coordinate) {
 
@@ -83,7 +137,7 @@ public class SheetImpl implements Sheet, Serializable {
 
     @Override
     public Map<Coordinate, Cell> getActiveCells() {
-        return this.activeCells;
+        return this.activeCells.asMap();
     }
 
     @Override
@@ -96,6 +150,16 @@ public class SheetImpl implements Sheet, Serializable {
         this.version = version;
     }
 
+    @Override
+    public void setRecalculationMode(RecalculationMode recalculationMode) {
+
+        if (recalculationMode == null) {
+            throw new IllegalArgumentException("Recalculation mode cannot be null");
+        }
+
+        this.recalculationMode = recalculationMode;
+    }
+
     @Override
     public boolean addRange(String name, Boundaries boundaries) {
 
@@ -105,11 +169,15 @@ public class SheetImpl implements Sheet, Serializable {
         }
 
         RangeImpl range = RangeImpl.create(name, boundaries);
-        if (!ranges.add(range)) {
+        if (ranges.putIfAbsent(range.getName(), range) != null) {
             throw new IllegalArgumentException("Range " +"\""+name+"\""+ " already exists in " + "\""+this.name+"\"");
         }
 
-        Collection<Coordinate> coordinates = this.rangeUses(range);
+        rangeIndex.addRange(range);
+        rangeAggregates.put(range.getName(), RangeAggregateImpl.create(range, this));
+
+        // Copied, setting a user updates the index it comes from.
+        Collection<Coordinate> coordinates = new ArrayList<>(this.rangeUses(range));
         if (!coordinates.isEmpty()) {
             coordinates.forEach(coordinate -> {
                 this.setCell(coordinate, activeCells.get(coordinate).getOriginalValue());
@@ -127,64 +195,52 @@ public class SheetImpl implements Sheet, Serializable {
 
     @Override
     public boolean deleteRange(RangeGetters range) {
-        return ranges.remove(range);
+        rangeIndex.removeRange(range.getName());
+        rangeAggregates.remove(range.getName());
+        rangeLevels.remove(range.getName());
+        return ranges.remove(range.getName()) != null;
     }
 
     @Override
     public void setCell(Coordinate target, String originalValue) {
 
-         Ref.sheetView = this;
-         Sum.sheetView = this;
-         Average.sheetView = this;
-
          isCoordinateInBoundaries(target);
+         this.columnStatistics.clear();
 
          Cell updatedCell = CellImpl.create(target, version, originalValue);
-         Cell previousCell =  insertCellToSheet(updatedCell);
+
+         // Forking is cheap, it only copies the chunk references, so we keep the cells as they were for rollback.
+         CellStore previousCells = this.activeCells.fork();
+         RangeIndex previousRangeIndex = this.rangeIndex.fork();
 
          try {
-             circleFrom(updatedCell);
-             recalculateSheetFrom(updatedCell);
+             Cell replacedCell = insertCellToSheet(updatedCell);
+             checkForCircleFrom(updatedCell);
+             updateLevelsFrom(target);
+             recalculateSheetFrom(Collections.singletonMap(target, replacedCell == null ? null : replacedCell.getEffectiveValue()));
          }
-         catch(IllegalArgumentException circle){
-             insertCellToSheet(previousCell);
-             throw circle;
+         catch(RuntimeException exception){
+             rollback(previousCells, previousRangeIndex);
+             throw exception;
          }
     }
 
     @Override
     public void setCells(Map<Coordinate, String> originalValues) {
 
-        // Preparing flags map so will be able to know if we've been already tried to set a specific cell.
-        Map<Coordinate, Boolean> flagMap = new HashMap<>();
+        this.columnStatistics.clear();
 
-        // Preparing old original values map so if we'll have an exception while we'll try to set cells,
-        // we'll be able to roll back and redo the operation.
-        Map<Coordinate, String> oldOriginalValueMap = new HashMap<>();
-
-        // Preparing a stack of coordinates, so we'll be able to know who is the first and who is the last we updated.
-        // The stack will help us to redo if needed.
-        Stack<Coordinate> updatedCellsCoordinates = new Stack<>();
-
-        // Initialize the flags map with false values.
-        for (Coordinate coordinate : originalValues.keySet()) {
-            flagMap.put(coordinate, false);
-        }
+        // The whole batch is one change: on any failure the cells go back to this fork, nothing is evaluated again.
+        CellStore previousCells = this.activeCells.fork();
+        RangeIndex previousRangeIndex = this.rangeIndex.fork();
 
         try {
-            // Sending each original value to helper function.
-            originalValues.forEach((coordinate, originalValue) -> setCellsHelper(originalValues, flagMap, oldOriginalValueMap, updatedCellsCoordinates, coordinate));
-        } catch (Exception exception) {
-            // Undo the operation and move on the exception.
-            updatedCellsCoordinates.forEach(coordinate -> {
-                if (oldOriginalValueMap.containsKey(coordinate) && "".equals(oldOriginalValueMap.get(coordinate))) {
-                    this.activeCells.remove(coordinate);
-                }
-                else {
-                    setCell(coordinate, oldOriginalValueMap.get(coordinate));
-                }
-            });
-
+            Map<Coordinate, Data> previousValues = insertCellsToSheet(originalValues);
+            updateLevelsAndCheckForCirclesFrom(originalValues.keySet());
+            recalculateSheetFrom(previousValues);
+        }
+        catch (RuntimeException exception) {
+            rollback(previousCells, previousRangeIndex);
             throw exception;
         }
     }
@@ -202,20 +258,17 @@ public class SheetImpl implements Sheet, Serializable {
     @Override
     public Range getRange(String name) {
 
-        Range theRange;
-
-        try{
-            theRange = ranges.stream().filter(range -> range.getName().equals(name.toUpperCase())).findFirst().get();
-        }catch (NoSuchElementException exception) {
-            theRange = null;
-        }
+        return ranges.get(name.toUpperCase());
+    }
 
-        return theRange;
+    @Override
+    public RangeAggregate getRangeAggregate(String name) {
+        return rangeAggregates.get(name.toUpperCase());
     }
 
     @Override
     public Set<RangeGetters> getRanges() {
-        return Collections.unmodifiableSet(this.ranges);
+        return Collections.unmodifiableSet(new HashSet<>(this.ranges.values()));
     }
 
     @Override
@@ -231,7 +284,7 @@ public class SheetImpl implements Sheet, Serializable {
                 }
                 else{
                     Cell dummyCell = CellImpl.create(CoordinateFactory.createCoordinate(row, col), version, DataImpl.empty);
-                    dummyCell.computeEffectiveValue();
+                    dummyCell.computeEffectiveValue(this);
                     dummyCell.setUpdateBy("");
                     rowCellsInRange.add(dummyCell);
                 }
@@ -245,66 +298,27 @@ public class SheetImpl implements Sheet, Serializable {
 
     @Override
     public boolean isColumnNumericInRange(int column, int startRow, int endRow) {
-
-        for (int row = startRow; row <= endRow; row++) {
-            CellGetters cell = activeCells.get(CoordinateFactory.createCoordinate(row, column));
-            String value;
-            if(cell !=null){
-                value = cell.getEffectiveValue().toString();
-            }
-            else{
-                value = "";
-            }
-
-            try{
-                Double.parseDouble(value);
-            }catch (NumberFormatException exception) {
-                //maybe throw exception with that coordinate.
-                return false;
-            }
-        }
-
-        return true;
+        // An empty cell reads as "", which is not a number.
+        return getColumnStatistics(column, startRow, endRow).isNumeric();
     }
 
     @Override
     public List<String> getColumnUniqueValuesInRange(int column, int startRow, int endRow) {
-        List<String> uniqueValues = new ArrayList<>();
-        for (int row = startRow; row <= endRow; row++) {
-            CellGetters cell = activeCells.get(CoordinateFactory.createCoordinate(row, column));
-            if(cell != null && !uniqueValues.contains(cell.getEffectiveValue().toString())){
-                uniqueValues.add(cell.getEffectiveValue().toString());
-            }
-        }
-        return uniqueValues;
+        return new ArrayList<>(getColumnStatistics(column, startRow, endRow).getDistinctValues());
     }
 
     @Override
-    public Collection<Coordinate> rangeUses(RangeGetters range) {
-
-        Set<String> validFirstStrings = Set.of("sum", "average");
-        List<Coordinate> coordinatesThatUseRange = new ArrayList<>();
-        String regex = "\\{([a-zA-Z]+),(.+)\\}";// {sum,grades}
-
-        // Compile the regex and match against the input
-        Pattern pattern = Pattern.compile(regex);
+    public ColumnStatistics getColumnStatistics(int column, int startRow, int endRow) {
+        return this.columnStatistics.computeIfAbsent(new ColumnSpan(column, startRow, endRow), span ->
+                ColumnStatisticsImpl.create(row -> activeCells.get(CoordinateFactory.createCoordinate(row, column)), startRow, endRow));
+    }
 
-        this.activeCells.values().forEach(cell -> {
-            Matcher matcher = pattern.matcher(cell.getOriginalValue());
+    @Override
+    public Collection<Coordinate> rangeUses(RangeGetters range) {
 
-            // If it matches the pattern
-            if (matcher.matches()) {
-                String firstString = matcher.group(1);
-                String secondString = matcher.group(2);
-
-                // Check if the first string is within the valid set
-                if (validFirstStrings.contains(firstString.toLowerCase())) {
-                    if (secondString.toUpperCase().equals(range.getName())) {
-                        coordinatesThatUseRange.add(cell.getCoordinate());
-                    }
-                }
-            }
-        });
+        // Cells are indexed by the range names they read as they are set, defined or not.
+        List<Coordinate> coordinatesThatUseRange = new ArrayList<>(rangeIndex.getDependents(range.getName()));
+        coordinatesThatUseRange.sort(Comparator.comparingInt(Coordinate::getRow).thenComparingInt(Coordinate::getCol));
 
         return coordinatesThatUseRange;
     }
@@ -316,25 +330,18 @@ public class SheetImpl implements Sheet, Serializable {
         }
         ///itay change
         RangeImpl range = RangeImpl.create(name, boundaries);
-        if (!ranges.add(range)) {
+        if (ranges.putIfAbsent(range.getName(), range) != null) {
             throw new IllegalArgumentException("Range already exists in " + this.name);
         }
+
+        rangeIndex.addRange(range);
+        rangeAggregates.put(range.getName(), RangeAggregateImpl.create(range, this));
     }
 
     @Override
     public Sheet copy() {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(this);
-            oos.close();
-
-            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
-            return (SheetImpl) ois.readObject();
-        } catch (Exception e) {
-            // deal with the runtime error that was discovered as part of invocation
-            throw new RuntimeException(e);
-        }
+        // The copy shares every cell with this sheet, each side copies a cell only when it changes it.
+        return new SheetImpl(this);
     }
 
     private boolean isRowInSheetBoundaries(int row) {
@@ -345,168 +352,399 @@ public class SheetImpl implements Sheet, Serializable {
         return !(column >= this.layout.getColumns());
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.columnStatistics = new ConcurrentHashMap<>();
+    }
+
     public static boolean isValidVersion(int version) {
         return version >= 1;
     }
 
-    private boolean circleFrom(Cell cellToCheck) {
-        return hasCircle(cellToCheck);
+    private void checkForCircleFrom(Cell updatedCell) {
+        Coordinate target = updatedCell.getCoordinate();
+        int highestPrecedentLevel = -1;
+
+        for (Coordinate precedent : updatedCell.getInfluenceFrom()) {
+            highestPrecedentLevel = Math.max(highestPrecedentLevel, activeCells.get(precedent).getLevel());
+        }
+
+        for (String rangeName : updatedCell.getInfluenceFromRanges()) {
+            RangeGetters range = getRange(rangeName);
+            if (range != null) {
+                highestPrecedentLevel = Math.max(highestPrecedentLevel, levelOf(range));
+            }
+        }
+
+        // Levels still describe the graph before this edit, and they grow along every edge.
+        // So a precedent below the target can't be reached from it, and the search never goes above the highest precedent.
+        if (highestPrecedentLevel < updatedCell.getLevel()) {
+            return;
+        }
+
+        int searchLevel = highestPrecedentLevel;
+
+        Map<Coordinate, Coordinate> reachedFrom = new HashMap<>();
+        Deque<Coordinate> pending = new ArrayDeque<>();
+
+        reachedFrom.put(target, null);
+        pending.push(target);
+
+        while (!pending.isEmpty()) {
+            Coordinate coordinate = pending.pop();
+
+            if (isPrecedentOf(updatedCell, coordinate)) {
+                throw new IllegalArgumentException("Circular voting: " + circlePath(target, coordinate, reachedFrom));
+            }
+
+            forEachDependent(coordinate, dependent -> {
+                if (!reachedFrom.containsKey(dependent) && activeCells.get(dependent).getLevel() <= searchLevel) {
+                    reachedFrom.put(dependent, coordinate);
+                    pending.push(dependent);
+                }
+            });
+        }
     }
 
-    private boolean hasCircle(Cell cellToCheck) {
-        return recHasCircle(cellToCheck, new HashSet<Coordinate>());
+    private String circlePath(Coordinate target, Coordinate precedent, Map<Coordinate, Coordinate> reachedFrom) {
+        LinkedList<String> path = new LinkedList<>();
+        path.add(target.toString());
+
+        for (Coordinate coordinate = precedent; coordinate != null; coordinate = reachedFrom.get(coordinate)) {
+            path.addFirst(coordinate.toString());
+        }
+
+        return String.join(" -> ", path);
     }
 
-    private boolean recHasCircle(Cell current, Set<Coordinate> visited) {
-        try {
-            // If the current object is already visited, a cycle is detected
-            if (visited.contains(current.getCoordinate())) {
-                return true;
+    private void updateLevelsFrom(Coordinate target) {
+        Deque<Coordinate> pending = new ArrayDeque<>();
+        pending.add(target);
+
+        // Only cells whose level actually moved pass the change on, the rest of the graph keeps its levels.
+        while (!pending.isEmpty()) {
+            Coordinate coordinate = pending.poll();
+            Cell cell = activeCells.get(coordinate);
+            int level = levelFromPrecedents(cell);
+
+            if (level != cell.getLevel()) {
+                setLevel(coordinate, level);
+                forEachDependent(coordinate, pending::add);
             }
+        }
+    }
 
-            // Mark the current object as visited
-            visited.add(current.getCoordinate());
+    private void updateLevelsAndCheckForCirclesFrom(Collection<Coordinate> targets) {
+        Set<Coordinate> affectedCells = new HashSet<>();
+        Deque<Coordinate> pending = new ArrayDeque<>(targets);
 
-            // Recur for all the objects in the relatedObjects list
-            for (Cell affectedBy : current.getInfluenceFrom()) {
-                // If a cycle is detected in the recursion, return true
-                if (recHasCircle(affectedBy, visited)) {
-                    throw new IllegalArgumentException("Circular voting: " + affectedBy.getCoordinate().toString());
-                }
+        while (!pending.isEmpty()) {
+            Coordinate coordinate = pending.pop();
+            if (affectedCells.add(coordinate)) {
+                forEachDependent(coordinate, pending::push);
+            }
+        }
+
+        // Kahn's algorithm over the cells the batch can reach, levels are set in the order it produces.
+        // Edges are counted from the precedent side, the same way they are released below.
+        Map<Coordinate, Integer> unresolvedPrecedents = new HashMap<>();
+        Deque<Coordinate> resolved = new ArrayDeque<>();
+
+        affectedCells.forEach(coordinate -> unresolvedPrecedents.put(coordinate, 0));
+        affectedCells.forEach(coordinate -> forEachDependent(coordinate, dependent -> unresolvedPrecedents.merge(dependent, 1, Integer::sum)));
+        unresolvedPrecedents.forEach((coordinate, count) -> {
+            if (count == 0) {
+                resolved.add(coordinate);
+            }
+        });
+
+        while (!resolved.isEmpty()) {
+            Coordinate coordinate = resolved.poll();
+            Cell cell = activeCells.get(coordinate);
+            int level = levelFromPrecedents(cell);
+
+            if (level != cell.getLevel()) {
+                setLevel(coordinate, level);
             }
 
-            // Remove the current object from the visited set (backtracking)
-            visited.remove(current.getCoordinate());
+            unresolvedPrecedents.remove(coordinate);
 
-            // If no cycle was found, return false
-            return false;
-        } catch (IllegalArgumentException exception) {
-           throw new IllegalArgumentException(exception.getMessage() + " -> " + current.getCoordinate().toString());
+            forEachDependent(coordinate, dependent -> {
+                int count = unresolvedPrecedents.merge(dependent, -1, Integer::sum);
+                if (count == 0) {
+                    resolved.add(dependent);
+                }
+            });
+        }
+
+        // Whatever is left waits on itself through some cycle.
+        if (!unresolvedPrecedents.isEmpty()) {
+            throw new IllegalArgumentException("Circular voting: " + circlePathAmong(unresolvedPrecedents.keySet()));
         }
     }
 
-    private Set<Cell> CoordinateToCell(Set<Coordinate> newInfluenceCellsId) {
-        Set<Cell> Cells = new HashSet<>();
+    private String circlePathAmong(Set<Coordinate> unresolvedCells) {
+        // Every unresolved cell has an unresolved precedent, so walking back through them must repeat a cell.
+        List<Coordinate> walk = new ArrayList<>();
+        Map<Coordinate, Integer> positions = new HashMap<>();
+        Coordinate coordinate = unresolvedCells.iterator().next();
+
+        while (!positions.containsKey(coordinate)) {
+            positions.put(coordinate, walk.size());
+            walk.add(coordinate);
+            Cell cell = activeCells.get(coordinate);
+            coordinate = unresolvedCells.stream().filter(candidate -> isPrecedentOf(cell, candidate)).findFirst().get();
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+        path.add(coordinate.toString());
 
-        for (Coordinate location : newInfluenceCellsId) {
-            Cells.add(getCell(location));
+        for (int i = positions.get(coordinate) + 1; i < walk.size(); i++) {
+            path.addFirst(walk.get(i).toString());
         }
-        return Cells;
+
+        path.addFirst(coordinate.toString());
+
+        return String.join(" -> ", path);
     }
 
-    private Stack<Cell> topologicalSortFrom(Cell cell) {
-        Stack<Cell> stack = new Stack<>();
-        Set<Coordinate> visited = new HashSet<>();
+    private boolean isPrecedentOf(CellGetters cell, Coordinate coordinate) {
 
-        // Call the recursive helper function to store topological sort starting from all cells one by one
-        for (Cell neighbor : cell.getInfluenceOn()) {
+        if (cell.getInfluenceFrom().contains(coordinate)) {
+            return true;
+        }
 
-            if (!visited.contains(neighbor.getCoordinate())) {
-                dfs(neighbor, visited, stack);
+        for (String rangeName : cell.getInfluenceFromRanges()) {
+            RangeGetters range = getRange(rangeName);
+            if (range != null && range.contains(coordinate)) {
+                return true;
             }
         }
 
-        stack.push(cell);
+        return false;
+    }
+
+    // A cell passes its changes to the cells that refer to it and to the readers of every range that covers it.
+    private void forEachDependent(Coordinate coordinate, Consumer<Coordinate> action) {
+        Cell cell = activeCells.get(coordinate);
+
+        if (cell != null) {
+            cell.getInfluenceOn().forEach(action);
+        }
+
+        rangeIndex.forEachRangeContaining(coordinate, range -> rangeIndex.getDependents(range.getName()).forEach(action));
+    }
+
+    private int levelFromPrecedents(Cell cell) {
+        int level = 0;
+
+        for (Coordinate precedent : cell.getInfluenceFrom()) {
+            level = Math.max(level, activeCells.get(precedent).getLevel() + 1);
+        }
+
+        for (String rangeName : cell.getInfluenceFromRanges()) {
+            RangeGetters range = getRange(rangeName);
+            if (range != null) {
+                level = Math.max(level, levelOf(range) + 1);
+            }
+        }
 
-        return stack;
+        return level;
     }
 
-    private void dfs(Cell cell, Set<Coordinate> visited,Stack<Cell> stack) {
-        visited.add(cell.getCoordinate());
+    private int levelOf(RangeGetters range) {
+        Integer level = rangeLevels.get(range.getName());
 
-        // Visit all the adjacent vertices
-        for (Cell neighbor : cell.getInfluenceOn()) {
+        if (level == null) {
+            level = 0;
+            Coordinate from = range.getBoundaries().getFrom();
+            Coordinate to = range.getBoundaries().getTo();
 
-            if (!visited.contains(neighbor.getCoordinate())) {
-                dfs(neighbor, visited, stack);
+            for (int row = from.getRow(); row <= to.getRow(); row++) {
+                for (int col = from.getCol(); col <= to.getCol(); col++) {
+                    Cell cell = activeCells.get(CoordinateFactory.createCoordinate(row, col));
+                    if (cell != null) {
+                        level = Math.max(level, cell.getLevel());
+                    }
+                }
             }
+
+            rangeLevels.put(range.getName(), level);
         }
 
-        // Push current cell to stack which stores the result
-        stack.push(cell);
+        return level;
+    }
+
+    private void setLevel(Coordinate coordinate, int level) {
+        Cell cell = activeCells.edit(coordinate);
+        int previousLevel = cell.getLevel();
+        cell.setLevel(level);
+
+        // A higher level raises the range level right away, a lower one only matters if it was the highest.
+        rangeIndex.forEachRangeContaining(coordinate, range -> {
+            Integer rangeLevel = rangeLevels.get(range.getName());
+            if (rangeLevel != null && level > rangeLevel) {
+                rangeLevels.put(range.getName(), level);
+            } else if (rangeLevel != null && previousLevel == rangeLevel) {
+                rangeLevels.remove(range.getName());
+            }
+        });
+    }
+
+    private void rollback(CellStore previousCells, RangeIndex previousRangeIndex) {
+        this.activeCells = previousCells;
+        this.columnStatistics.clear();
+        this.rangeIndex = previousRangeIndex;
+        this.rangeLevels.clear();
+        this.rangeAggregates.values().forEach(RangeAggregateImpl::rebuild);
     }
 
     private Cell insertCellToSheet(Cell toInsert) {
 
-        Cell toReplace = activeCells.put(toInsert.getCoordinate(),toInsert);
-        OrignalValueUtilis.findInfluenceFrom(toInsert.getOriginalValue(),this).forEach(coord ->
+        Coordinate target = toInsert.getCoordinate();
+        Cell toReplace = activeCells.put(target, toInsert);
+        Set<Coordinate> influenceFrom = OrignalValueUtilis.findCellReferences(toInsert.getOriginalValue());
+
+        influenceFrom.forEach(coord ->
         {
             isCoordinateInBoundaries(coord);
-            if(!activeCells.containsKey(coord)) {
+            if(activeCells.get(coord) == null) {
                 Cell c = CellImpl.create(coord,version, DataImpl.empty);
-                c.computeEffectiveValue();
+                c.computeEffectiveValue(this);
                 activeCells.put(coord,c);
             }
         });
 
-        toInsert.setInfluenceFrom(CoordinateToCell(OrignalValueUtilis.findInfluenceFrom(toInsert.getOriginalValue(),this)));
-        toInsert.getInfluenceFrom().forEach(cell -> cell.getInfluenceOn().add(toInsert));
-
         //if it is a new cell there is no influenceOn, if exist he may have influenced on other cells.
         if(toReplace != null) {
             toInsert.setInfluenceOn(toReplace.getInfluenceOn());
-            toInsert.getInfluenceOn().forEach(cell -> cell.getInfluenceFrom().add(toInsert));
-            //until here we get a new sheet now we just need to remove
-            toReplace.getInfluenceFrom().forEach(cell -> cell.getInfluenceOn().remove(toReplace));
-            toReplace.getInfluenceOn().forEach(cell -> cell.getInfluenceFrom().remove(toReplace));
-
+            toInsert.setLevel(toReplace.getLevel());
+            // Edges are kept by coordinate, so the cells that depend on the target don't change at all.
+            toReplace.getInfluenceFrom().forEach(coord -> activeCells.edit(coord).removeInfluenceOn(target));
+            toReplace.getInfluenceFromRanges().forEach(rangeName -> rangeIndex.removeDependent(rangeName, target));
         }
 
+        toInsert.setInfluenceFrom(influenceFrom);
+        influenceFrom.forEach(coord -> activeCells.edit(coord).addInfluenceOn(target));
+        toInsert.getInfluenceFromRanges().forEach(rangeName -> rangeIndex.addDependent(rangeName, target));
+
         return toReplace;
     }
 
-    private void recalculateSheetFrom(Cell cell) {
+    private Map<Coordinate, Data> insertCellsToSheet(Map<Coordinate, String> originalValues) {
+        Map<Coordinate, Data> previousValues = new HashMap<>();
+        Map<Coordinate, Set<Coordinate>> influenceFromMap = new HashMap<>();
+        List<Cell> replacedCells = new ArrayList<>();
 
-        Stack<Cell> cellStack = topologicalSortFrom(cell);
+        // Every formula is parsed and its references checked before the store is touched.
+        originalValues.forEach((coordinate, originalValue) -> {
+            isCoordinateInBoundaries(coordinate);
 
-        while (!cellStack.isEmpty()) {
-            Cell c = cellStack.pop();
-            c.computeEffectiveValue();
-            c.setVersion(version);
-        }
-    }
+            Set<Coordinate> influenceFrom = OrignalValueUtilis.findCellReferences(originalValue);
+            influenceFrom.forEach(refCoordinate -> {
+                if (!originalValues.containsKey(refCoordinate) && this.activeCells.get(refCoordinate) == null) {
+                    throw new IndexOutOfBoundsException(refCoordinate + " is not define in file, cannot get data !");
+                }
+            });
 
-    private void setCellsHelper(Map<Coordinate, String> newOriginalValuesMap,
-                                Map<Coordinate, Boolean> flagMap,
-                                Map<Coordinate, String> oldOriginalValueMap,
-                                Stack<Coordinate> updatedCellsCoordinates,
-                                Coordinate coordinate) {
+            influenceFromMap.put(coordinate, influenceFrom);
+        });
 
-        // If we touched the coordinate, go back.
-        if (flagMap.get(coordinate)) {
-            return;
-        }
+        originalValues.forEach((coordinate, originalValue) -> {
+            Cell toInsert = CellImpl.create(coordinate, version, originalValue);
+            Cell toReplace = activeCells.put(coordinate, toInsert);
+
+            if (toReplace != null) {
+                toInsert.setInfluenceOn(toReplace.getInfluenceOn());
+                toInsert.setLevel(toReplace.getLevel());
+                replacedCells.add(toReplace);
+            }
 
-        // We touched the coordinate!
-        flagMap.put(coordinate, true);
+            previousValues.put(coordinate, toReplace == null ? null : toReplace.getEffectiveValue());
+        });
 
-        String newOriginalValue = newOriginalValuesMap.get(coordinate);
+        // Old edges are dropped only once every new cell is in, so a precedent that is also in the batch loses them too.
+        replacedCells.forEach(toReplace -> {
+            toReplace.getInfluenceFrom().forEach(coordinate -> activeCells.edit(coordinate).removeInfluenceOn(toReplace.getCoordinate()));
+            toReplace.getInfluenceFromRanges().forEach(rangeName -> rangeIndex.removeDependent(rangeName, toReplace.getCoordinate()));
+        });
 
-        Set<Coordinate> refCoordinates = OrignalValueUtilis.findInfluenceFrom(newOriginalValue,this);
+        influenceFromMap.forEach((coordinate, influenceFrom) -> {
+            Cell cell = activeCells.edit(coordinate);
+            cell.setInfluenceFrom(influenceFrom);
+            influenceFrom.forEach(precedent -> activeCells.edit(precedent).addInfluenceOn(coordinate));
+            cell.getInfluenceFromRanges().forEach(rangeName -> rangeIndex.addDependent(rangeName, coordinate));
+        });
+
+        return previousValues;
+    }
 
-        // For each cell that we might be depended on, we'll do some checks:
-        // If the cell is inside 'newOriginalValuesMap', we'll do recursive operation with this cell.
-        // Else if the cell is not inside 'activeCells' map we'll throw exception because this cell is null.
-        // Else, it is inside 'activeCells' map, and we'll skip to next iteration.
+    private void recalculateSheetFrom(Map<Coordinate, Data> previousTargetValues) {
 
-        refCoordinates.forEach(refCoordinate -> {
-            if (newOriginalValuesMap.containsKey(refCoordinate)) {
-                setCellsHelper(newOriginalValuesMap, flagMap, oldOriginalValueMap, updatedCellsCoordinates, refCoordinate);
+        // A cell's precedents are all on lower levels, so taking dirty cells level by level
+        // computes each of them once, after everything it reads from.
+        PriorityQueue<Coordinate> dirtyCells = new PriorityQueue<>(Comparator.comparingInt(coordinate -> activeCells.get(coordinate).getLevel()));
+        Set<Coordinate> markedCells = new HashSet<>();
+
+        previousTargetValues.keySet().forEach(target -> {
+            dirtyCells.add(target);
+            markedCells.add(target);
+            recalculationCounters.cellVisited();
+        });
+
+        while (!dirtyCells.isEmpty()) {
+            int level = activeCells.get(dirtyCells.peek()).getLevel();
+            List<Cell> levelCells = new ArrayList<>();
+            List<Data> previousValues = new ArrayList<>();
+
+            // The store is only written here, so computing the level afterwards just reads it.
+            while (!dirtyCells.isEmpty() && activeCells.get(dirtyCells.peek()).getLevel() == level) {
+                Coordinate coordinate = dirtyCells.poll();
+                previousValues.add(previousTargetValues.containsKey(coordinate) ? previousTargetValues.get(coordinate) : activeCells.get(coordinate).getEffectiveValue());
+                levelCells.add(activeCells.edit(coordinate));
             }
-            else if (!this.activeCells.containsKey(refCoordinate)) {
-                throw new IndexOutOfBoundsException(refCoordinate + " is not define in file, cannot get data !");
+
+            computeLevel(levelCells);
+
+            for (int i = 0; i < levelCells.size(); i++) {
+                Cell cell = levelCells.get(i);
+                recalculationCounters.cellRecomputed();
+
+                // Cells that read an unchanged value would compute the same result, so they stay as they are.
+                if (Objects.equals(previousValues.get(i), cell.getEffectiveValue())) {
+                    recalculationCounters.cutoff();
+                    continue;
+                }
+
+                cell.setVersion(version);
+                updateRangeAggregates(cell.getCoordinate(), previousValues.get(i), cell.getEffectiveValue());
+
+                forEachDependent(cell.getCoordinate(), dependent -> {
+                    recalculationCounters.cellVisited();
+                    if (markedCells.add(dependent)) {
+                        dirtyCells.add(dependent);
+                    }
+                });
             }
-        });
 
-        if (this.activeCells.containsKey(coordinate)) {
-            Cell cell = this.activeCells.get(coordinate);
-            oldOriginalValueMap.put(coordinate, cell.getOriginalValue());
+            // The whole level is in the store before any aggregate reads it again.
+            levelCells.forEach(cell -> rangeIndex.forEachRangeContaining(cell.getCoordinate(), range -> rangeAggregates.get(range.getName()).rebuildIfDue()));
+        }
+    }
+
+    private void updateRangeAggregates(Coordinate coordinate, Data previousValue, Data newValue) {
+        rangeIndex.forEachRangeContaining(coordinate, range -> rangeAggregates.get(range.getName()).update(previousValue, newValue));
+    }
+
+    private void computeLevel(List<Cell> levelCells) {
+
+        if (recalculationMode == RecalculationMode.PARALLEL && levelCells.size() >= PARALLEL_LEVEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(LevelRecalculationTask.create(levelCells, this));
         }
         else {
-            oldOriginalValueMap.put(coordinate, "");
+            levelCells.forEach(cell -> cell.computeEffectiveValue(this));
         }
-
-        setCell(coordinate, newOriginalValue);
-        updatedCellsCoordinates.push(coordinate);
     }
+
+    private record ColumnSpan(int column, int startRow, int endRow) { }
 }
@@ -0,0 +1,83 @@
+package sheet.projection;
+
+import expression.api.Data;
+import expression.impl.DataImpl;
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+
+import java.util.Collections;
+import java.util.Set;
+
+// A cell of a projected sheet: the source cell's value shown at another coordinate, as a plain value without its formula.
+public class ProjectedCell implements CellGetters {
+
+    private final static int PROJECTED_VERSION = 1;
+
+    private final Coordinate coordinate;
+    private final String updateBy;
+    private final Data effectiveValue;
+
+    private ProjectedCell(Coordinate coordinate, String updateBy, Data effectiveValue) {
+
+        if (coordinate == null) {
+            throw new IllegalArgumentException("Coordinate cannot be null!");
+        }
+
+        this.coordinate = coordinate;
+        this.updateBy = updateBy;
+        this.effectiveValue = effectiveValue;
+    }
+
+    public static ProjectedCell create(Coordinate coordinate, CellGetters source) {
+        return new ProjectedCell(coordinate, source.getUpdaterUserName(), source.getEffectiveValue());
+    }
+
+    public static ProjectedCell empty(Coordinate coordinate) {
+        return new ProjectedCell(coordinate, "", DataImpl.EMPTY);
+    }
+
+    @Override
+    public Coordinate getCoordinate() {
+        return this.coordinate;
+    }
+
+    @Override
+    public int getVersion() {
+        return PROJECTED_VERSION;
+    }
+
+    @Override
+    public int getLevel() {
+        return 0;
+    }
+
+    @Override
+    public String getUpdaterUserName() {
+        return this.updateBy;
+    }
+
+    @Override
+    public String getOriginalValue() {
+        return this.effectiveValue.toString();
+    }
+
+    @Override
+    public Data getEffectiveValue() {
+        return this.effectiveValue;
+    }
+
+    @Override
+    public Set<Coordinate> getInfluenceFrom() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<String> getInfluenceFromRanges() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<Coordinate> getInfluenceOn() {
+        return Collections.emptySet();
+    }
+}
@@ -0,0 +1,224 @@
+package sheet.projection;
+
+import sheet.api.SheetGetters;
+import sheet.cell.api.CellGetters;
+import sheet.column.statistics.api.ColumnStatistics;
+import sheet.column.statistics.impl.ColumnStatisticsImpl;
+import sheet.coordinate.api.Coordinate;
+import sheet.coordinate.impl.CoordinateFactory;
+import sheet.layout.api.LayoutGetters;
+import sheet.range.aggregate.api.RangeAggregate;
+import sheet.range.api.RangeGetters;
+import sheet.range.boundaries.api.Boundaries;
+import sheet.recalculation.api.RecalculationCounters;
+import sheet.recalculation.api.RecalculationMode;
+import sheet.recalculation.impl.RecalculationCountersImpl;
+
+import java.util.*;
+
+// A read only view of a version with the rows of one area reordered or left out, nothing is parsed or recalculated.
+// Like a sheet built from values it has no ranges, and every cell shows its source's effective value as version 1.
+public class ProjectedSheet implements SheetGetters {
+
+    private final static String PROJECTED_NAME = "Sheet";
+    private final static int PROJECTED_VERSION = 1;
+
+    private final SheetGetters source;
+    private final Boundaries boundaries;
+    // sourceRows[i] is the source row shown at the area's first row + i, the area's rows after it are left empty.
+    private final int[] sourceRows;
+    // Sorting moves whole rows, so empty cells inside the area are shown too, filtering only moves what exists.
+    private final boolean showEmptyCells;
+    private final RecalculationCounters recalculationCounters;
+    private Map<Coordinate, CellGetters> activeCells;
+
+    private ProjectedSheet(SheetGetters source, Boundaries boundaries, int[] sourceRows, boolean showEmptyCells) {
+
+        if (source == null) {
+            throw new IllegalArgumentException("Source sheet cannot be null");
+        }
+
+        if (boundaries == null) {
+            throw new IllegalArgumentException("Boundaries cannot be null");
+        }
+
+        this.source = source;
+        this.boundaries = boundaries;
+        this.sourceRows = sourceRows;
+        this.showEmptyCells = showEmptyCells;
+        this.recalculationCounters = RecalculationCountersImpl.create();
+    }
+
+    // permutation[i] is the offset, from the area's first row, of the row that is shown at offset i.
+    public static ProjectedSheet sorted(SheetGetters source, Boundaries boundaries, int[] permutation) {
+        int startRow = boundaries.getFrom().getRow();
+
+        if (permutation.length != boundaries.getTo().getRow() - startRow + 1) {
+            throw new IllegalArgumentException("Permutation must have a position for every row in " + boundaries);
+        }
+
+        int[] sourceRows = new int[permutation.length];
+        for (int row = 0; row < permutation.length; row++) {
+            sourceRows[row] = startRow + permutation[row];
+        }
+
+        return new ProjectedSheet(source, boundaries, sourceRows, true);
+    }
+
+    // The kept rows, as offsets from the area's first row, move up in their order and the rows left under them are empty.
+    public static ProjectedSheet filtered(SheetGetters source, Boundaries boundaries, BitSet keptRows) {
+        int startRow = boundaries.getFrom().getRow();
+        int[] sourceRows = new int[keptRows.cardinality()];
+
+        int next = 0;
+        for (int row = keptRows.nextSetBit(0); row >= 0; row = keptRows.nextSetBit(row + 1)) {
+            sourceRows[next++] = startRow + row;
+        }
+
+        return new ProjectedSheet(source, boundaries, sourceRows, false);
+    }
+
+    @Override
+    public String getName() {
+        return PROJECTED_NAME;
+    }
+
+    @Override
+    public LayoutGetters getLayout() {
+        return this.source.getLayout();
+    }
+
+    @Override
+    public int getVersion() {
+        return PROJECTED_VERSION;
+    }
+
+    @Override
+    public RecalculationCounters getRecalculationCounters() {
+        return this.recalculationCounters;
+    }
+
+    @Override
+    public RecalculationMode getRecalculationMode() {
+        return RecalculationMode.SEQUENTIAL;
+    }
+
+    @Override
+    public CellGetters getCell(Coordinate coordinate) {
+        this.source.isCoordinateInBoundaries(coordinate);
+
+        if (!isInArea(coordinate)) {
+            CellGetters sourceCell = this.source.getCell(coordinate);
+            return sourceCell == null ? null : ProjectedCell.create(coordinate, sourceCell);
+        }
+
+        int offset = coordinate.getRow() - this.boundaries.getFrom().getRow();
+        CellGetters sourceCell = offset < this.sourceRows.length
+                ? this.source.getCell(CoordinateFactory.createCoordinate(this.sourceRows[offset], coordinate.getCol()))
+                : null;
+
+        if (sourceCell != null) {
+            return ProjectedCell.create(coordinate, sourceCell);
+        }
+
+        return this.showEmptyCells && offset < this.sourceRows.length ? ProjectedCell.empty(coordinate) : null;
+    }
+
+    @Override
+    public Map<Coordinate, CellGetters> getActiveCells() {
+
+        if (this.activeCells == null) {
+            Map<Coordinate, CellGetters> cells = new HashMap<>();
+
+            this.source.getActiveCells().forEach((coordinate, cell) -> {
+                if (!isInArea(coordinate)) {
+                    cells.put(coordinate, ProjectedCell.create(coordinate, cell));
+                }
+            });
+
+            Coordinate from = this.boundaries.getFrom();
+            for (int row = from.getRow(); row < from.getRow() + this.sourceRows.length; row++) {
+                for (int col = from.getCol(); col <= this.boundaries.getTo().getCol(); col++) {
+                    CellGetters cell = getCell(CoordinateFactory.createCoordinate(row, col));
+                    if (cell != null) {
+                        cells.put(cell.getCoordinate(), cell);
+                    }
+                }
+            }
+
+            this.activeCells = Collections.unmodifiableMap(cells);
+        }
+
+        return this.activeCells;
+    }
+
+    @Override
+    public RangeGetters getRange(String rangeName) {
+        return null;
+    }
+
+    @Override
+    public RangeAggregate getRangeAggregate(String rangeName) {
+        return null;
+    }
+
+    @Override
+    public Set<RangeGetters> getRanges() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public List<List<CellGetters>> getCellInRange(int startRow, int endRow, int startCol, int endCol) {
+        List<List<CellGetters>> cellsInRange = new ArrayList<>();
+
+        for (int row = startRow; row <= endRow; row++) {
+            List<CellGetters> rowCellsInRange = new ArrayList<>();
+            for (int col = startCol; col <= endCol; col++) {
+                Coordinate coordinate = CoordinateFactory.createCoordinate(row, col);
+                CellGetters cell = getCell(coordinate);
+                rowCellsInRange.add(cell != null ? cell : ProjectedCell.empty(coordinate));
+            }
+            cellsInRange.add(rowCellsInRange);
+        }
+
+        return cellsInRange;
+    }
+
+    @Override
+    public List<String> getColumnUniqueValuesInRange(int column, int startRow, int endRow) {
+        return new ArrayList<>(getColumnStatistics(column, startRow, endRow).getDistinctValues());
+    }
+
+    @Override
+    public ColumnStatistics getColumnStatistics(int column, int startRow, int endRow) {
+        return ColumnStatisticsImpl.create(row -> getCell(CoordinateFactory.createCoordinate(row, column)), startRow, endRow);
+    }
+
+    @Override
+    public boolean isCoordinateInBoundaries(Coordinate target) {
+        return this.source.isCoordinateInBoundaries(target);
+    }
+
+    @Override
+    public boolean isRangeInBoundaries(Boundaries boundaries) {
+        return this.source.isRangeInBoundaries(boundaries);
+    }
+
+    @Override
+    public boolean isColumnNumericInRange(int column, int startRow, int endRow) {
+        return getColumnStatistics(column, startRow, endRow).isNumeric();
+    }
+
+    @Override
+    public Collection<Coordinate> rangeUses(RangeGetters range) {
+        return Collections.emptyList();
+    }
+
+    private boolean isInArea(Coordinate coordinate) {
+        Coordinate from = this.boundaries.getFrom();
+        Coordinate to = this.boundaries.getTo();
+
+        return coordinate.getRow() >= from.getRow() && coordinate.getRow() <= to.getRow() &&
+                coordinate.getCol() >= from.getCol() && coordinate.getCol() <= to.getCol();
+    }
+}
@@ -0,0 +1,8 @@
+package sheet.range.aggregate.api;
+
+public interface RangeAggregate {
+    double getSum();
+    int getNumericCount();
+    double getMin();
+    double getMax();
+}
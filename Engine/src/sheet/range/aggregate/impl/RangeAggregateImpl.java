@@ -0,0 +1,228 @@
+package sheet.range.aggregate.impl;
+
+import expression.api.Data;
+import expression.api.DataType;
+import expression.api.EvaluationContext;
+import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+import sheet.range.aggregate.api.RangeAggregate;
+import sheet.range.api.RangeGetters;
+
+import java.io.Serializable;
+
+// Running totals of the values in a range, kept up to date one changed cell at a time.
+// SUM counts numbers and the UNKNOWN NaN of failed arithmetic, AVERAGE divides by the numbers only.
+public class RangeAggregateImpl implements RangeAggregate, Serializable {
+
+    private final RangeGetters range;
+    private final int area;
+    private final EvaluationContext context;
+
+    // Neumaier compensated sum of the finite values, the special values are counted apart
+    // so that removing one of them restores the sum exactly.
+    private double sum;
+    private double compensation;
+    private int nanCount;
+    private int positiveInfinityCount;
+    private int negativeInfinityCount;
+    private int numericCount;
+    private int updatesSinceRebuild;
+
+    private double min;
+    private double max;
+    private boolean minMaxValid;
+
+    private RangeAggregateImpl(RangeGetters range, EvaluationContext context) {
+        Coordinate from = range.getBoundaries().getFrom();
+        Coordinate to = range.getBoundaries().getTo();
+
+        this.range = range;
+        this.area = (to.getRow() - from.getRow() + 1) * (to.getCol() - from.getCol() + 1);
+        this.context = context;
+    }
+
+    private RangeAggregateImpl(RangeAggregateImpl other, EvaluationContext context) {
+        this.range = other.range;
+        this.area = other.area;
+        this.context = context;
+        this.sum = other.sum;
+        this.compensation = other.compensation;
+        this.nanCount = other.nanCount;
+        this.positiveInfinityCount = other.positiveInfinityCount;
+        this.negativeInfinityCount = other.negativeInfinityCount;
+        this.numericCount = other.numericCount;
+        this.updatesSinceRebuild = other.updatesSinceRebuild;
+        this.min = other.min;
+        this.max = other.max;
+        this.minMaxValid = other.minMaxValid;
+    }
+
+    public static RangeAggregateImpl create(RangeGetters range, EvaluationContext context) {
+        RangeAggregateImpl aggregate = new RangeAggregateImpl(range, context);
+        aggregate.rebuild();
+
+        return aggregate;
+    }
+
+    // Published versions are copied while readers may be filling in their min and max.
+    public synchronized RangeAggregateImpl copy(EvaluationContext context) {
+        return new RangeAggregateImpl(this, context);
+    }
+
+    @Override
+    public double getSum() {
+
+        if (this.nanCount > 0 || (this.positiveInfinityCount > 0 && this.negativeInfinityCount > 0)) {
+            return Double.NaN;
+        }
+
+        if (this.positiveInfinityCount > 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        if (this.negativeInfinityCount > 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        return this.sum + this.compensation;
+    }
+
+    @Override
+    public int getNumericCount() {
+        return this.numericCount;
+    }
+
+    @Override
+    public synchronized double getMin() {
+        validateMinMax();
+        return this.min;
+    }
+
+    @Override
+    public synchronized double getMax() {
+        validateMinMax();
+        return this.max;
+    }
+
+    public void update(Data previousValue, Data newValue) {
+        remove(previousValue);
+        add(newValue);
+        this.updatesSinceRebuild++;
+    }
+
+    // Rounding errors of removals add up, so a full pass every area updates keeps the sum exact for O(1) amortized.
+    // Only called once every update for the values in the store is in, a pass in between would count some of them twice.
+    public void rebuildIfDue() {
+
+        if (this.updatesSinceRebuild > this.area) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        this.sum = 0;
+        this.compensation = 0;
+        this.nanCount = 0;
+        this.positiveInfinityCount = 0;
+        this.negativeInfinityCount = 0;
+        this.numericCount = 0;
+        this.updatesSinceRebuild = 0;
+        this.minMaxValid = false;
+
+        for (Coordinate coordinate : this.range.toCoordinateCollection()) {
+            CellGetters cell = this.context.getCell(coordinate);
+            if (cell != null) {
+                add(cell.getEffectiveValue());
+            }
+        }
+    }
+
+    private void add(Data value) {
+
+        if (value == null) {
+            return;
+        }
+
+        if (value.getType() == DataType.NUMERIC) {
+            double number = value.getNumber();
+            this.numericCount++;
+            addToSum(number, 1);
+
+            if (this.minMaxValid) {
+                this.min = Math.min(this.min, number);
+                this.max = Math.max(this.max, number);
+            }
+        } else if (isUnknownNumber(value)) {
+            addToSum(Double.NaN, 1);
+        }
+    }
+
+    private void remove(Data value) {
+
+        if (value == null) {
+            return;
+        }
+
+        if (value.getType() == DataType.NUMERIC) {
+            double number = value.getNumber();
+            this.numericCount--;
+            addToSum(number, -1);
+
+            if (this.minMaxValid && (number <= this.min || number >= this.max || Double.isNaN(number))) {
+                this.minMaxValid = false;
+            }
+        } else if (isUnknownNumber(value)) {
+            addToSum(Double.NaN, -1);
+        }
+    }
+
+    private void addToSum(double number, int sign) {
+
+        if (Double.isNaN(number)) {
+            this.nanCount += sign;
+        } else if (number == Double.POSITIVE_INFINITY) {
+            this.positiveInfinityCount += sign;
+        } else if (number == Double.NEGATIVE_INFINITY) {
+            this.negativeInfinityCount += sign;
+        } else {
+            double term = sign * number;
+            double total = this.sum + term;
+
+            if (Math.abs(this.sum) >= Math.abs(term)) {
+                this.compensation += (this.sum - total) + term;
+            } else {
+                this.compensation += (term - total) + this.sum;
+            }
+
+            this.sum = total;
+        }
+    }
+
+    private void validateMinMax() {
+
+        if (this.minMaxValid) {
+            return;
+        }
+
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+        boolean first = true;
+
+        for (Coordinate coordinate : this.range.toCoordinateCollection()) {
+            CellGetters cell = this.context.getCell(coordinate);
+
+            if (cell != null && cell.getEffectiveValue().getType() == DataType.NUMERIC) {
+                double number = cell.getEffectiveValue().getNumber();
+                this.min = first ? number : Math.min(this.min, number);
+                this.max = first ? number : Math.max(this.max, number);
+                first = false;
+            }
+        }
+
+        this.minMaxValid = true;
+    }
+
+    private static boolean isUnknownNumber(Data value) {
+        return value.getType() == DataType.UNKNOWN && value.getValue() instanceof Double number && number.isNaN();
+    }
+}
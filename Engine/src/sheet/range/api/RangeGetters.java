@@ -9,4 +9,5 @@ public interface RangeGetters {
     String getName();
     Boundaries getBoundaries();
     Collection<Coordinate> toCoordinateCollection();
+    boolean contains(Coordinate coordinate);
 }
@@ -4,14 +4,14 @@ import sheet.coordinate.api.Coordinate;
 import sheet.coordinate.impl.CoordinateFactory;
 import sheet.range.boundaries.api.Boundaries;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BoundariesFactory {
 
     private static final String CELL_RANGE_REGEX = "^[a-zA-Z]+\\d+\\.\\.[a-zA-Z]+\\d+$";
 
-    private static final Map<String, Boundaries> boundariesMap = new HashMap<String, Boundaries>();
+    private static final Map<String, Boundaries> boundariesMap = new ConcurrentHashMap<String, Boundaries>();
 
     public static Boundaries createBoundaries(Coordinate from, Coordinate to) {
         String key = from.toString() + ".." + to.toString();
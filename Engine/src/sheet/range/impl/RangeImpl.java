@@ -59,6 +59,15 @@ public class RangeImpl implements Range, Serializable {
         return coordinates;
     }
 
+    @Override
+    public boolean contains(Coordinate coordinate) {
+        Coordinate from = boundaries.getFrom();
+        Coordinate to = boundaries.getTo();
+
+        return coordinate.getRow() >= from.getRow() && coordinate.getRow() <= to.getRow()
+                && coordinate.getCol() >= from.getCol() && coordinate.getCol() <= to.getCol();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,21 @@
+package sheet.range.index.api;
+
+import sheet.coordinate.api.Coordinate;
+import sheet.range.api.RangeGetters;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Range dependencies kept once per range: which ranges cover a cell and which cells read each range.
+public interface RangeIndex {
+    void addRange(RangeGetters range);
+    void removeRange(String rangeName);
+    void forEachRangeContaining(Coordinate coordinate, Consumer<RangeGetters> action);
+
+    Set<Coordinate> getDependents(String rangeName);
+    void addDependent(String rangeName, Coordinate dependent);
+    void removeDependent(String rangeName, Coordinate dependent);
+
+    // Returns an index that shares all current data with this one, both sides copy on their next write.
+    RangeIndex fork();
+}
@@ -0,0 +1,112 @@
+package sheet.range.index.impl;
+
+import sheet.coordinate.api.Coordinate;
+import sheet.range.api.RangeGetters;
+import sheet.range.index.api.RangeIndex;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class RangeIndexImpl implements RangeIndex, Serializable {
+
+    private final Map<String, RangeGetters> ranges;
+    private final Map<String, Set<Coordinate>> dependents;
+    // Rebuilt on the first lookup after the ranges change, null until then.
+    private RangeIntervalTree tree;
+
+    // Names of the dependent sets this index may write in place, the others are still shared with a fork.
+    private transient Set<String> ownedDependents;
+
+    private RangeIndexImpl() {
+        this.ranges = new HashMap<>();
+        this.dependents = new HashMap<>();
+    }
+
+    private RangeIndexImpl(RangeIndexImpl other) {
+        this.ranges = new HashMap<>(other.ranges);
+        this.dependents = new HashMap<>(other.dependents);
+        this.tree = other.tree;
+    }
+
+    public static RangeIndexImpl create() {
+        return new RangeIndexImpl();
+    }
+
+    @Override
+    public void addRange(RangeGetters range) {
+        this.ranges.put(range.getName(), range);
+        this.tree = null;
+    }
+
+    @Override
+    public void removeRange(String rangeName) {
+        if (this.ranges.remove(rangeName.toUpperCase()) != null) {
+            this.tree = null;
+        }
+    }
+
+    @Override
+    public void forEachRangeContaining(Coordinate coordinate, Consumer<RangeGetters> action) {
+
+        if (this.ranges.isEmpty()) {
+            return;
+        }
+
+        if (this.tree == null) {
+            this.tree = RangeIntervalTree.build(this.ranges.values());
+        }
+
+        this.tree.stab(coordinate, action);
+    }
+
+    @Override
+    public Set<Coordinate> getDependents(String rangeName) {
+        Set<Coordinate> rangeDependents = this.dependents.get(rangeName.toUpperCase());
+
+        return rangeDependents == null ? Collections.emptySet() : Collections.unmodifiableSet(rangeDependents);
+    }
+
+    @Override
+    public void addDependent(String rangeName, Coordinate dependent) {
+        writableDependents(rangeName).add(dependent);
+    }
+
+    @Override
+    public void removeDependent(String rangeName, Coordinate dependent) {
+        Set<Coordinate> rangeDependents = writableDependents(rangeName);
+        rangeDependents.remove(dependent);
+
+        if (rangeDependents.isEmpty()) {
+            this.dependents.remove(rangeName);
+            this.ownedDependents.remove(rangeName);
+        }
+    }
+
+    @Override
+    public RangeIndex fork() {
+        // From now on neither side owns the shared sets.
+        this.ownedDependents = null;
+        return new RangeIndexImpl(this);
+    }
+
+    private Set<Coordinate> writableDependents(String rangeName) {
+
+        if (this.ownedDependents == null) {
+            this.ownedDependents = new HashSet<>();
+        }
+
+        Set<Coordinate> rangeDependents = this.dependents.get(rangeName);
+
+        if (rangeDependents == null) {
+            rangeDependents = new HashSet<>();
+            this.dependents.put(rangeName, rangeDependents);
+            this.ownedDependents.add(rangeName);
+        } else if (this.ownedDependents.add(rangeName)) {
+            rangeDependents = new HashSet<>(rangeDependents);
+            this.dependents.put(rangeName, rangeDependents);
+        }
+
+        return rangeDependents;
+    }
+}
@@ -0,0 +1,108 @@
+package sheet.range.index.impl;
+
+import sheet.coordinate.api.Coordinate;
+import sheet.range.api.RangeGetters;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Centered interval tree over the row spans of the ranges, it is never changed once built
+// so sheet versions share it until one of them adds or removes a range.
+class RangeIntervalTree implements Serializable {
+
+    private final int center;
+    // Ranges whose rows cross the center, once by first row ascending and once by last row descending.
+    private final RangeGetters[] byFirstRow;
+    private final RangeGetters[] byLastRow;
+    private final RangeIntervalTree below;
+    private final RangeIntervalTree above;
+
+    private RangeIntervalTree(int center, List<RangeGetters> crossing, RangeIntervalTree below, RangeIntervalTree above) {
+        this.center = center;
+        this.byFirstRow = crossing.toArray(new RangeGetters[0]);
+        this.byLastRow = crossing.toArray(new RangeGetters[0]);
+        this.below = below;
+        this.above = above;
+
+        Arrays.sort(this.byFirstRow, Comparator.comparingInt(RangeIntervalTree::firstRow));
+        Arrays.sort(this.byLastRow, Comparator.comparingInt(RangeIntervalTree::lastRow).reversed());
+    }
+
+    static RangeIntervalTree build(Collection<RangeGetters> ranges) {
+
+        if (ranges.isEmpty()) {
+            return null;
+        }
+
+        int[] rows = new int[ranges.size() * 2];
+        int i = 0;
+        for (RangeGetters range : ranges) {
+            rows[i++] = firstRow(range);
+            rows[i++] = lastRow(range);
+        }
+
+        Arrays.sort(rows);
+        int center = rows[rows.length / 2];
+
+        List<RangeGetters> below = new ArrayList<>();
+        List<RangeGetters> above = new ArrayList<>();
+        List<RangeGetters> crossing = new ArrayList<>();
+
+        for (RangeGetters range : ranges) {
+            if (lastRow(range) < center) {
+                below.add(range);
+            } else if (firstRow(range) > center) {
+                above.add(range);
+            } else {
+                crossing.add(range);
+            }
+        }
+
+        return new RangeIntervalTree(center, crossing, build(below), build(above));
+    }
+
+    void stab(Coordinate coordinate, Consumer<RangeGetters> action) {
+        int row = coordinate.getRow();
+
+        if (row <= this.center) {
+            for (RangeGetters range : this.byFirstRow) {
+                if (firstRow(range) > row) {
+                    break;
+                }
+                acceptIfColumnMatches(range, coordinate, action);
+            }
+
+            if (row < this.center && this.below != null) {
+                this.below.stab(coordinate, action);
+            }
+        } else {
+            for (RangeGetters range : this.byLastRow) {
+                if (lastRow(range) < row) {
+                    break;
+                }
+                acceptIfColumnMatches(range, coordinate, action);
+            }
+
+            if (this.above != null) {
+                this.above.stab(coordinate, action);
+            }
+        }
+    }
+
+    private static void acceptIfColumnMatches(RangeGetters range, Coordinate coordinate, Consumer<RangeGetters> action) {
+        int column = coordinate.getCol();
+
+        if (column >= range.getBoundaries().getFrom().getCol() && column <= range.getBoundaries().getTo().getCol()) {
+            action.accept(range);
+        }
+    }
+
+    private static int firstRow(RangeGetters range) {
+        return range.getBoundaries().getFrom().getRow();
+    }
+
+    private static int lastRow(RangeGetters range) {
+        return range.getBoundaries().getTo().getRow();
+    }
+}
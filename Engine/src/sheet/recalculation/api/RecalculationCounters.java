@@ -0,0 +1,7 @@
+package sheet.recalculation.api;
+
+public interface RecalculationCounters {
+    long getCellsVisited();
+    long getCellsRecomputed();
+    long getCutoffs();
+}
@@ -0,0 +1,6 @@
+package sheet.recalculation.api;
+
+public enum RecalculationMode {
+    SEQUENTIAL,
+    PARALLEL
+}
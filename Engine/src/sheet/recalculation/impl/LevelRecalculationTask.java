@@ -0,0 +1,44 @@
+package sheet.recalculation.impl;
+
+import expression.api.EvaluationContext;
+import sheet.cell.api.Cell;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+// Computes the cells of one dependency level. None of them reads another, so any split of the list is safe.
+public class LevelRecalculationTask extends RecursiveAction {
+
+    private static final int CELLS_PER_TASK = 16;
+
+    private final List<Cell> cells;
+    private final EvaluationContext context;
+    private final int from;
+    private final int to;
+
+    private LevelRecalculationTask(List<Cell> cells, EvaluationContext context, int from, int to) {
+        this.cells = cells;
+        this.context = context;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static LevelRecalculationTask create(List<Cell> cells, EvaluationContext context) {
+        return new LevelRecalculationTask(cells, context, 0, cells.size());
+    }
+
+    @Override
+    protected void compute() {
+
+        if (this.to - this.from <= CELLS_PER_TASK) {
+            for (int i = this.from; i < this.to; i++) {
+                this.cells.get(i).computeEffectiveValue(this.context);
+            }
+
+            return;
+        }
+
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new LevelRecalculationTask(this.cells, this.context, this.from, middle), new LevelRecalculationTask(this.cells, this.context, middle, this.to));
+    }
+}
@@ -0,0 +1,50 @@
+package sheet.recalculation.impl;
+
+import sheet.recalculation.api.RecalculationCounters;
+
+import java.io.Serializable;
+
+public class RecalculationCountersImpl implements RecalculationCounters, Serializable {
+
+    private long cellsVisited;
+    private long cellsRecomputed;
+    private long cutoffs;
+
+    private RecalculationCountersImpl() {}
+
+    public static RecalculationCountersImpl create() {
+        return new RecalculationCountersImpl();
+    }
+
+    @Override
+    public long getCellsVisited() {
+        return this.cellsVisited;
+    }
+
+    @Override
+    public long getCellsRecomputed() {
+        return this.cellsRecomputed;
+    }
+
+    @Override
+    public long getCutoffs() {
+        return this.cutoffs;
+    }
+
+    public void cellVisited() {
+        this.cellsVisited++;
+    }
+
+    public void cellRecomputed() {
+        this.cellsRecomputed++;
+    }
+
+    public void cutoff() {
+        this.cutoffs++;
+    }
+
+    @Override
+    public String toString() {
+        return "visited=" + this.cellsVisited + ", recomputed=" + this.cellsRecomputed + ", cutoffs=" + this.cutoffs;
+    }
+}
@@ -9,6 +9,7 @@ import dto.FilterDto;
 import dto.RequestDto;
 import dto.SheetDto;
 import dto.SortDto;
+import dto.SweepDto;
 import dto.enums.PermissionType;
 import dto.enums.Status;
 import javafx.animation.FadeTransition;
@@ -415,6 +416,23 @@ public class MainController {
         HttpClientUtil.runAsyncPost(finalUrl, body, callback);
     }
 
+    // Post a sweep of input values over the dynamic sheet
+    public void postSweepToDynamicSheet(String sheetName, String sheetVersion, SweepDto sweepDto, Callback callback) {
+        String jsonString = GSON_INSTANCE.toJson(sweepDto);
+        RequestBody body = RequestBody.create(jsonString, MediaType.parse("text/plain"));
+
+        String finalUrl = Objects.requireNonNull(HttpUrl
+                        .parse(DYNAMIC_SHEET_SWEEP_URL))
+                .newBuilder()
+                .addQueryParameter("userName", userNameProperty.get())
+                .addQueryParameter("sheetName", sheetName)
+                .addQueryParameter("sheetVersion", sheetVersion)
+                .build()
+                .toString();
+
+        HttpClientUtil.runAsyncPost(finalUrl, body, callback);
+    }
+
     // Post new range in a specific sheet
     public void postRange(String sheetName, String sheetVersion, String rangeName, String rangeBoundaries, Callback callback) {
 
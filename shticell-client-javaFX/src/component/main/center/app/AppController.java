@@ -320,6 +320,10 @@ public class AppController {
         this.mainController.postCellToDynamicSheet(this.currentSheet.name(), String.valueOf(this.currentSheet.version()), cellName, cellValue, callback);
     }
 
+    public void sweepDynamicSheet(SweepDto sweepDto, Callback callback) {
+        this.mainController.postSweepToDynamicSheet(this.currentSheet.name(), String.valueOf(this.currentSheet.version()), sweepDto, callback);
+    }
+
 
     // Run later functions
 
@@ -5,6 +5,9 @@ import com.google.gson.GsonBuilder;
 import component.main.center.app.AppController;
 import dto.CellDto;
 import dto.SheetDto;
+import dto.SweepAxisDto;
+import dto.SweepDto;
+import dto.SweepResultDto;
 import dto.deserializer.CellDtoDeserializer;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
@@ -22,8 +25,10 @@ import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 public class DynamicAnalysisController {
 
@@ -46,6 +51,14 @@ public class DynamicAnalysisController {
     List<Button> resetButtonList;
     List<Button> deleteButtonList;
 
+    // The sweep of the row last moved: its slider shows the sheets from it, without a request per value.
+    // The value shown last is not in the server's dynamic sheet yet, it is sent once another change is made.
+    SweepResultDto sweep;
+    String sweepKey;
+    String requestedSweepKey;
+    String sweepCoordinate;
+    String sweepShownValue;
+
     @FXML
     public void initialize() {
         buttonAdd.setOnAction(e -> addRow());
@@ -176,15 +189,130 @@ public class DynamicAnalysisController {
         double mod = staticSheetCellValue - staticSheetCellValue.intValue();
         if (Math.abs(staticSheetCellValue.intValue() % stepValue.intValue()) == Math.abs(newValue.intValue() % stepValue.intValue())) {
             if (mod == 0.0) {
-                updateCellToDynamicSheet(coordinate, String.valueOf(newValue.intValue()));
+                showCellValue(targetRowIndex, coordinate, String.valueOf(newValue.intValue()));
             } else {
-                updateCellToDynamicSheet(coordinate, String.valueOf(newValue.intValue() + mod));
+                showCellValue(targetRowIndex, coordinate, String.valueOf(newValue.intValue() + mod));
+            }
+        }
+    }
+
+    private void showCellValue(int targetRowIndex, String coordinate, String value) {
+        Slider slider = sliderList.get(targetRowIndex);
+        double step = stepSpinnerList.get(targetRowIndex).getValue();
+        double staticValue = mainAppController.getStaticSheetCellValue(coordinate);
+
+        // The sweep starts on the slider's first value that is a whole number of steps from the static value.
+        double first = staticValue - Math.floor((staticValue - slider.getMin()) / step) * step;
+        String key = coordinate + ":" + first + ":" + slider.getMax() + ":" + step;
+
+        if (sweep != null && key.equals(sweepKey)) {
+            int index = indexOfInputValue(Double.parseDouble(value));
+            if (index >= 0) {
+                sweepShownValue = value;
+                mainAppController.updateDynamicSheetRunLater(getSweepPoint(index, coordinate, value));
+                return;
+            }
+        }
+
+        Runnable update = () -> updateCellToDynamicSheet(coordinate, value, () -> {
+            if (!key.equals(requestedSweepKey)) {
+                requestSweep(coordinate, key, new SweepAxisDto(coordinate, first, slider.getMax(), step));
             }
+        });
+
+        // A value shown from another sweep goes in first, the new sweep starts from it.
+        String shownCoordinate = sweepCoordinate;
+        String shownValue = sweepShownValue;
+        sweepShownValue = null;
+        if (!key.equals(sweepKey) && !key.equals(requestedSweepKey)) {
+            clearSweep();
+        }
+
+        if (shownValue != null && !shownCoordinate.equals(coordinate)) {
+            updateCellToDynamicSheet(shownCoordinate, shownValue, update);
+        } else {
+            update.run();
+        }
+    }
+
+    private int indexOfInputValue(double value) {
+        List<Double> inputValues = sweep.inputValues();
+        for (int i = 0; i < inputValues.size(); i++) {
+            if (Math.abs(inputValues.get(i) - value) < 1e-9) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private SheetDto getSweepPoint(int index, String coordinate, String value) {
+        SheetDto sheet = sweep.sheet();
+        Map<String, CellDto> activeCells = new HashMap<>(sheet.activeCells());
+
+        sweep.outputs().forEach((cellName, values) -> {
+            CellDto cell = activeCells.get(cellName);
+            if (cell != null) {
+                String originalValue = cellName.equals(coordinate) ? value : cell.originalValue();
+                activeCells.put(cellName, new CellDto(cell.coordinate(), cell.version(), cell.updateBy(), originalValue, values.get(index), cell.influenceOn(), cell.influenceFrom()));
+            }
+        });
+
+        return new SheetDto(sheet.name(), sheet.layout(), sheet.version(), activeCells, sheet.ranges());
+    }
+
+    // A value shown from the sweep is sent unless the change is to the same cell, which replaces it anyway.
+    private void releaseSweep(String changedCoordinate) {
+        if (sweepShownValue != null && !sweepCoordinate.equals(changedCoordinate)) {
+            updateCellToDynamicSheet(sweepCoordinate, sweepShownValue, () -> {});
         }
+        clearSweep();
+    }
+
+    private void clearSweep() {
+        sweep = null;
+        sweepKey = null;
+        requestedSweepKey = null;
+        sweepCoordinate = null;
+        sweepShownValue = null;
     }
 
     //http request
+    private void requestSweep(String coordinate, String key, SweepAxisDto input) {
+        requestedSweepKey = key;
+
+        mainAppController.sweepDynamicSheet(new SweepDto(input, null, null), new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                // The slider keeps sending its values one by one.
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) throws IOException {
+                assert response.body() != null;
+                String jsonResponse = response.body().string();
+
+                if (response.code() == 200) {
+                    Gson gson = new GsonBuilder().registerTypeAdapter(CellDto.class,new CellDtoDeserializer()).create();
+                    SweepResultDto sweepResultDto = gson.fromJson(jsonResponse, SweepResultDto.class);
+                    Platform.runLater(() -> {
+                        if (key.equals(requestedSweepKey)) {
+                            sweep = sweepResultDto;
+                            sweepKey = key;
+                            sweepCoordinate = coordinate;
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     private void updateCellToDynamicSheet(String coordinate, String value) {
+        releaseSweep(coordinate);
+        updateCellToDynamicSheet(coordinate, value, () -> {});
+    }
+
+    //http request
+    private void updateCellToDynamicSheet(String coordinate, String value, Runnable onUpdated) {
         mainAppController.updateCellToDynamicSheet(coordinate, value, new Callback() {
             @Override
             public void onFailure(@NotNull Call call, @NotNull IOException e) {
@@ -202,7 +330,10 @@ public class DynamicAnalysisController {
                 else {
                     Gson gson = new GsonBuilder().registerTypeAdapter(CellDto.class,new CellDtoDeserializer()).create();
                     SheetDto sheetDto = gson.fromJson(jsonResponse, SheetDto.class);
-                    Platform.runLater(() -> mainAppController.updateDynamicSheetRunLater(sheetDto));
+                    Platform.runLater(() -> {
+                        mainAppController.updateDynamicSheetRunLater(sheetDto);
+                        onUpdated.run();
+                    });
                 }
             }
         });
@@ -40,6 +40,7 @@ public class Constants {
 
     // Third Layer
     public final static String DYNAMIC_SHEET_CELL_URL = DYNAMIC_SHEET_URL + "/cell";
+    public final static String DYNAMIC_SHEET_SWEEP_URL = DYNAMIC_SHEET_URL + "/sweep";
     public final static String GET_BOUNDARIES_URL = RANGE_URL + "/boundaries";
     public final static String UNIQUE_COL_VALUES_URL = FILTER_SHEET_URL + "/uniqueColumnValues";
     public final static String GET_NUMERIC_COLUMNS_IN_RANGE_URL = SORT_SHEET_URL + "/numericColumns";
@@ -1,6 +1,9 @@
 package dto;
 
+import sheet.api.SheetGetters;
 import sheet.cell.api.CellGetters;
+import sheet.coordinate.api.Coordinate;
+import sheet.range.api.RangeGetters;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -16,7 +19,7 @@ public record CellDto(
         Set<CellDto> influenceOn,
         Set<CellDto> influenceFrom
 ) {
-    public CellDto(CellGetters cell) {
+    public CellDto(CellGetters cell, SheetGetters sheet) {
         this(
                 new CoordinateDto(cell.getCoordinate()),
                 cell.getVersion(),
@@ -24,13 +27,26 @@ public record CellDto(
                 cell.getOriginalValue(),
                 cell.getEffectiveValue().toString(),
                 new HashSet<>(),
-                createInfluenceFrom(cell)
+                createInfluenceFrom(cell, sheet)
         );
     }
 
-    private static Set<CellDto> createInfluenceFrom(CellGetters cell) {
+    private static Set<CellDto> createInfluenceFrom(CellGetters cell, SheetGetters sheet) {
         Set<CellDto> influenceFrom = new HashSet<>();
-        cell.getInfluenceFrom().forEach(cell1 -> influenceFrom.add(new CellDto(cell1)));
+        // Range cells are not linked to the formula one by one, so the range is expanded here and its empty cells shown as such.
+        // The cell already knows what it reads, nothing is parsed again here.
+        Set<Coordinate> influenceFromCoordinates = new HashSet<>(cell.getInfluenceFrom());
+        cell.getInfluenceFromRanges().forEach(rangeName -> {
+            RangeGetters range = sheet.getRange(rangeName);
+            if (range != null) {
+                influenceFromCoordinates.addAll(range.toCoordinateCollection());
+            }
+        });
+
+        influenceFromCoordinates.forEach(coordinate -> {
+            CellGetters influencingCell = sheet.getCell(coordinate);
+            influenceFrom.add(influencingCell != null ? new CellDto(influencingCell, sheet) : new CellDto(new CoordinateDto(coordinate), sheet.getVersion(), "", "", "", new HashSet<>(), Collections.emptySet()));
+        });
         return Collections.unmodifiableSet(influenceFrom);  // Ensure immutability
     }
 
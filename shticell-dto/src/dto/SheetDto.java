@@ -26,7 +26,7 @@ public record SheetDto(
 
     private static Map<String, CellDto> createActiveCells(SheetGetters sheet) {
         Map<String, CellDto> activeCells = new HashMap<>();
-        sheet.getActiveCells().forEach((coordinate, cell) -> activeCells.put(coordinate.toString(), new CellDto(cell)));
+        sheet.getActiveCells().forEach((coordinate, cell) -> activeCells.put(coordinate.toString(), new CellDto(cell, sheet)));
         return Collections.unmodifiableMap(activeCells);  // Ensure immutability
     }
 
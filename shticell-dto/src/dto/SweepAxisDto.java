@@ -0,0 +1,4 @@
+package dto;
+
+public record SweepAxisDto(String cell, double min, double max, double step) {
+}
@@ -0,0 +1,7 @@
+package dto;
+
+import java.util.List;
+
+// secondInput is null for a one input sweep, no output cells means every cell the inputs change.
+public record SweepDto(SweepAxisDto input, SweepAxisDto secondInput, List<String> outputCells) {
+}
@@ -0,0 +1,12 @@
+package dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Each output cell's values run over the input values, and for every input value over the second input values.
+public record SweepResultDto(
+        SheetDto sheet,
+        List<Double> inputValues,
+        List<Double> secondInputValues,
+        Map<String, List<String>> outputs
+) {}
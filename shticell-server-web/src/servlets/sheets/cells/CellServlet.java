@@ -66,9 +66,7 @@ public class CellServlet extends HttpServlet {
 
             String jsonBody = ServletUtils.getJsonBody(request);
 
-            synchronized (ServletUtils.getVersionLock()){
-                engine.updateCell(userName, sheetName, sheetVersion, cellName, jsonBody);
-            }
+            engine.updateCell(userName, sheetName, sheetVersion, cellName, jsonBody);
 
             SheetDto sheetDTO = engine.getSheetDTO(userName, sheetName);
 
@@ -0,0 +1,44 @@
+package servlets.sheets.dynamic;
+
+import com.google.gson.Gson;
+import dto.SweepDto;
+import dto.SweepResultDto;
+import engine.api.Engine;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.MultipartConfig;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import utils.ServletUtils;
+
+import java.io.IOException;
+
+@WebServlet(name = "DynamicSheetSweepServlet", urlPatterns = "/sheet/dynamic/sweep")
+@MultipartConfig(fileSizeThreshold = 1024 * 1024, maxFileSize = 1024 * 1024 * 5, maxRequestSize = 1024 * 1024 * 5 * 5)
+public class DynamicSheetSweepServlet extends HttpServlet {
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        try {
+            Engine engine = ServletUtils.getEngine(getServletContext());
+            Gson gson = ServletUtils.getGson(getServletContext());
+
+            String userName = ServletUtils.getUserName(request);
+            String sheetName = ServletUtils.getSheetName(request);
+            int sheetVersion = ServletUtils.getSheetVersion(request);
+
+            SweepDto sweepDto = gson.fromJson(ServletUtils.getJsonBody(request), SweepDto.class);
+
+            SweepResultDto sweepResultDto = engine.sweepDynamicSheet(userName, sheetName, sheetVersion, sweepDto);
+
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().print(gson.toJson(sweepResultDto));
+            response.setStatus(HttpServletResponse.SC_OK);
+        } catch (Exception e) {
+            response.setContentType("text/plain");
+            response.getWriter().println(e.getMessage());
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
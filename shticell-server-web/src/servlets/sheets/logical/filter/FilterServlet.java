@@ -3,6 +3,7 @@ package servlets.sheets.logical.filter;
 import com.google.gson.Gson;
 import dto.*;
 import engine.api.Engine;
+import engine.filter.FilterCondition;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
@@ -16,7 +17,6 @@ import utils.ServletUtils;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 @WebServlet(name = "FilterServlet", urlPatterns = "/sheet/filter")
 @MultipartConfig(fileSizeThreshold = 1024 * 1024, maxFileSize = 1024 * 1024 * 5, maxRequestSize = 1024 * 1024 * 5 * 5)
@@ -47,10 +47,7 @@ public class FilterServlet extends HttpServlet {
             String filterByColumn = filterDto.filterByColumn();
             List<String> byValues = filterDto.byValues();
 
-            Map<CoordinateDto, CoordinateDto> coordinateCoordinateMap = engine.filteredMap(userName, sheetName, boundaries, filterByColumn, byValues, sheetVersion);
-            SheetDto filterSheet = engine.filter(userName, sheetName, boundaries, filterByColumn, byValues, sheetVersion);
-
-            FilterDesignDto filterDesignDto = new FilterDesignDto(filterSheet, coordinateCoordinateMap, boundariesDto);
+            FilterDesignDto filterDesignDto = engine.filter(userName, sheetName, boundaries, List.of(FilterCondition.valueIn(filterByColumn, byValues)), sheetVersion);
 
             response.setContentType("application/json");
             response.setCharacterEncoding("UTF-8");
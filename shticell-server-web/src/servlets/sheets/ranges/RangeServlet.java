@@ -28,9 +28,7 @@ public class RangeServlet extends HttpServlet {
 
             int sheetVersion = ServletUtils.getSheetVersion(request);
 
-            synchronized (ServletUtils.getVersionLock()){
-                engine.addRange(userName, sheetName, sheetVersion, rangeName, rangeValue);
-           }
+            engine.addRange(userName, sheetName, sheetVersion, rangeName, rangeValue);
 
             SheetDto sheetDTO = engine.getSheetDTO(userName, sheetName);
 
@@ -57,11 +55,7 @@ public class RangeServlet extends HttpServlet {
 
             int sheetVersion = ServletUtils.getSheetVersion(request);
 
-            synchronized (ServletUtils.getVersionLock()) {
-                engine.deleteRange(userName, sheetName, sheetVersion, rangeName);
-
-            }
-
+            engine.deleteRange(userName, sheetName, sheetVersion, rangeName);
 
             response.setStatus(HttpServletResponse.SC_NO_CONTENT);
         } catch (Exception e) {
@@ -29,7 +29,6 @@ public class ServletUtils {
     private static final Object engineLock = new Object();
     private static final Object chatLock = new Object();
     private static final Object gsonLock = new Object();
-    private static final Object versionLock = new Object();
 
 
     public static Engine getEngine(ServletContext servletContext) {
@@ -199,10 +198,5 @@ public class ServletUtils {
         return Integer.parseInt(chatVersion);
     }
 
-    public static Object getVersionLock() {
-        return versionLock;
-    }
-
-
 }
 